@@ -0,0 +1,111 @@
+package com.game.benchmarks;
+
+import com.game.config.AppConfig;
+import com.game.config.WebConfig;
+import com.game.controller.PlayerOrder;
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.GameRepository;
+import com.game.repository.PlayerSearchResult;
+import com.game.service.GameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter, count and search queries through {@link GameService} against the dev profile's H2 database, migrated by
+ * the application's own Flyway scripts and seeded with synthetic players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterQueryBenchmark {
+    private static final int SEED_CHUNK = 1000;
+
+    @Param({"10000", "100000"})
+    private int players;
+
+    private AnnotationConfigWebApplicationContext context;
+    private GameService gameService;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles("dev");
+        context.register(AppConfig.class, WebConfig.class);
+        context.refresh();
+        gameService = context.getBean(GameService.class);
+
+        GameRepository repository = context.getBean(GameRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        List<Player> generated = SyntheticPlayers.generate(players, 42, context.getBean(LevelCurve.class));
+        for (int from = 0; from < generated.size(); from += SEED_CHUNK) {
+            List<Player> chunk = generated.subList(from, Math.min(from + SEED_CHUNK, generated.size()));
+            transaction.execute(status -> {
+                repository.createAll(chunk);
+                return null;
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Player> pageByRaceOrderedByExperience() {
+        Race race = Race.values()[round++ % Race.values().length];
+        return gameService.getPlayers(null, null, race, null, null, null, null, null, null, null, null,
+                PlayerOrder.EXPERIENCE, 0, 20);
+    }
+
+    @Benchmark
+    public List<Player> deepPageByLevel() {
+        return gameService.getPlayers(null, null, null, null, null, null, null, null, null, null, null,
+                PlayerOrder.LEVEL, 200 + round++ % 100, 20);
+    }
+
+    @Benchmark
+    public List<Player> pageByNameFragment() {
+        return gameService.getPlayers(round++ % 2 == 0 ? "ар" : "ин", null, null, null, null, null, null, null,
+                null, null, null, PlayerOrder.ID, 0, 20);
+    }
+
+    @Benchmark
+    public Integer countByProfessionAndLevelRange() {
+        Profession profession = Profession.values()[round++ % Profession.values().length];
+        return gameService.playerCount(null, null, null, profession, null, null, false, null, null, 100, 300);
+    }
+
+    @Benchmark
+    public PlayerSearchResult searchWithFacets() {
+        int minExperience = (round++ % 10) * 500_000;
+        return gameService.search(null, null, null, null, null, null, null, minExperience,
+                minExperience + 1_000_000, null, null, PlayerOrder.EXPERIENCE, 0, 20);
+    }
+}
@@ -0,0 +1,79 @@
+package com.game.benchmarks;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level computation: the closed form Player.calcLevel used before LevelCurve, the table lookup, and the entity
+ * methods that wrap it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+    private static final int MASK = 1023;
+
+    private final int[] experiences = new int[MASK + 1];
+    private LevelCurve quadratic;
+    private LevelCurve table;
+    private Player player;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(11);
+        for (int i = 0; i < experiences.length; i++)
+            experiences[i] = random.nextInt(Player.MAX_EXPERIENCE + 1);
+        quadratic = LevelCurve.quadratic(50, Player.MAX_EXPERIENCE);
+        int[] thresholds = new int[quadratic.getMaxLevel() + 1];
+        for (int level = 0; level < thresholds.length; level++)
+            thresholds[level] = quadratic.getThreshold(level);
+        table = LevelCurve.of(thresholds);
+        player = new Player();
+    }
+
+    @Benchmark
+    public int closedForm() {
+        Integer experience = experiences[next++ & MASK];
+        Integer level = (int) ((Math.sqrt(2500 + 200 * experience) - 50) / 100);
+        Integer untilNextLevel = 50 * (level + 1) * (level + 2) - experience;
+        return level + untilNextLevel;
+    }
+
+    @Benchmark
+    public int quadraticCurve() {
+        int experience = experiences[next++ & MASK];
+        return quadratic.getLevel(experience) + quadratic.getUntilNextLevel(experience);
+    }
+
+    @Benchmark
+    public int tableCurve() {
+        int experience = experiences[next++ & MASK];
+        return table.getLevel(experience) + table.getUntilNextLevel(experience);
+    }
+
+    @Benchmark
+    public Integer playerCalcLevel() {
+        player.setExperience(experiences[next++ & MASK]);
+        player.calcLevel(quadratic);
+        player.calcUntilNextLevel(quadratic);
+        return player.getUntilNextLevel();
+    }
+}
@@ -0,0 +1,82 @@
+package com.game.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.config.WebConfig;
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a page of players with the ObjectMapper the REST controllers use ({@code streaming}), with
+ * the field-visibility bean serializer it replaced ({@code reflective}) and with the Smile mapper served for
+ * {@code Accept: application/x-jackson-smile} ({@code smile}). The encoded page size is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerSerializationBenchmark {
+
+    @Param({"3", "20", "100", "1000"})
+    private int pageSize;
+
+    @Param({"streaming", "reflective", "smile"})
+    private String codec;
+
+    private ObjectMapper objectMapper;
+    private List<Player> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        WebConfig webConfig = new WebConfig(null, null, false);
+        if ("streaming".equals(codec))
+            objectMapper = webConfig.objectMapper();
+        else if ("smile".equals(codec))
+            objectMapper = webConfig.smileObjectMapper();
+        else
+            objectMapper = reflectiveObjectMapper();
+        page = SyntheticPlayers.generate(pageSize, 7, LevelCurve.quadratic(50, Player.MAX_EXPERIENCE));
+        for (int i = 0; i < page.size(); i++)
+            page.get(i).setId(i + 1L);
+        encoded = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%s page of %d players: %d bytes%n", codec, pageSize, encoded.length);
+    }
+
+    private static ObjectMapper reflectiveObjectMapper() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return objectMapper;
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Player[] readPage() throws java.io.IOException {
+        return objectMapper.readValue(encoded, Player[].class);
+    }
+}
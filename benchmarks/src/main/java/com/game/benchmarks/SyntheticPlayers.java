@@ -0,0 +1,23 @@
+package com.game.benchmarks;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.tools.PlayerGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class SyntheticPlayers {
+
+    private SyntheticPlayers() {
+    }
+
+    static List<Player> generate(int count, long seed, LevelCurve curve) {
+        // Squared uniform skews towards low experience, as on a live server.
+        PlayerGenerator generator = new PlayerGenerator(seed).experience("skewed:2").levelCurve(curve);
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            players.add(generator.next());
+        return players;
+    }
+}
@@ -5,6 +5,8 @@ CREATE DATABASE IF NOT EXISTS test
 
 USE rpg;
 
+DROP TABLE IF EXISTS flyway_schema_history;
+
 DROP TABLE IF EXISTS player;
 
 CREATE TABLE player
@@ -24,6 +26,18 @@ CREATE TABLE player
     ENGINE = InnoDB
     DEFAULT CHARACTER SET = utf8;
 
+DROP TABLE IF EXISTS player_import;
+
+CREATE TABLE player_import
+(
+    id            VARCHAR(100) NOT NULL,
+    rowsCommitted BIGINT(20)   NOT NULL,
+    updated       DATETIME     NULL,
+    PRIMARY KEY (id)
+)
+    ENGINE = InnoDB
+    DEFAULT CHARACTER SET = utf8;
+
 INSERT INTO player(name, title, race, profession, birthday, banned, experience, level, untilNextLevel)
 VALUES ('Ниус', 'Приходящий Без Шума', 'HOBBIT', 'ROGUE', '2010-10-12', false, 58347, 33, 1153)
      , ('Никрашш', 'НайтВульф', 'ORC', 'WARLOCK', '2010-02-14', false, 174403, 58, 2597)
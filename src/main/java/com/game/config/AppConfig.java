@@ -1,54 +1,119 @@
 package com.game.config;
 
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.config.CacheConfiguration;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cache.ehcache.ConfigSettings;
+import org.hibernate.cache.ehcache.internal.EhcacheRegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.jdbc.datasource.embedded.ConnectionProperties;
+import org.springframework.jdbc.datasource.embedded.DataSourceFactory;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
-import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.sql.Driver;
+import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
 
 @Configuration
 @EnableTransactionManagement
+@EnableScheduling
 @ComponentScan("com.game")
 @EnableJpaRepositories(basePackages = "com.game.repository")
+@PropertySource("classpath:application.properties")
 public class AppConfig {
+    private static final AtomicInteger CACHE_MANAGERS = new AtomicInteger();
+
+    @Bean(initMethod = "migrate")
+    public Flyway flyway(DataSource dataSource) {
+        // Schemas created by init.sql before migrations existed already hold the player table from V1; everything
+        // added since, player_import included, comes from later migrations so it reaches those schemas too.
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
 
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    @DependsOn("flyway")
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Environment env,
+                                                                       CacheManager entityCacheManager,
+                                                                       StatementCounter statementCounter) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(dataSource());
+        em.setDataSource(dataSource);
         em.setPackagesToScan("com.game.entity");
 
         JpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         em.setJpaVendorAdapter(vendorAdapter);
-        em.setJpaProperties(additionalProperties());
+        em.setJpaProperties(additionalProperties(env, entityCacheManager, statementCounter));
 
         return em;
     }
 
+    @Profile("prod")
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource(Environment env, PoolMetrics poolMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("rpg");
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(env.getRequiredProperty("db.url"));
+        config.setUsername(env.getRequiredProperty("db.username"));
+        config.setPassword(env.getRequiredProperty("db.password"));
+        config.setMinimumIdle(env.getProperty("db.pool.min-idle", Integer.class, 2));
+        config.setMaximumPoolSize(env.getProperty("db.pool.max-size", Integer.class, 10));
+        config.setIdleTimeout(env.getProperty("db.pool.idle-timeout", Long.class, 600000L));
+        config.setConnectionTimeout(env.getProperty("db.pool.connection-timeout", Long.class, 30000L));
+        config.setValidationTimeout(env.getProperty("db.pool.validation-timeout", Long.class, 5000L));
+        config.setLeakDetectionThreshold(env.getProperty("db.pool.leak-detection-threshold", Long.class, 60000L));
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("db.pool.prep-stmt-cache-size", "250"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.setMetricsTrackerFactory(poolMetrics);
+        return new HikariDataSource(config);
+    }
+
     @Profile("prod")
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/rpg?serverTimezone=UTC&characterEncoding=UTF-8");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
     }
 
     @Profile("dev")
@@ -58,18 +123,129 @@ public class AppConfig {
         return new EmbeddedDatabaseBuilder()
                 .generateUniqueName(true)
                 .setType(H2)
-                .setScriptEncoding("UTF-8")
-                .ignoreFailedDrops(true)
-                .addScript("test.sql")
+                .setDataSourceFactory(ignoreCaseDataSourceFactory())
                 .build();
     }
 
+    /**
+     * Creates VARCHAR columns case-insensitive, as the utf8_general_ci collation does on MySQL, so that LIKE and
+     * ORDER BY name behave the same in dev as in prod.
+     */
+    private static DataSourceFactory ignoreCaseDataSourceFactory() {
+        SimpleDriverDataSource dataSource = new SimpleDriverDataSource();
+        return new DataSourceFactory() {
+            @Override
+            public ConnectionProperties getConnectionProperties() {
+                return new ConnectionProperties() {
+                    @Override
+                    public void setDriverClass(Class<? extends Driver> driverClass) {
+                        dataSource.setDriverClass(driverClass);
+                    }
+
+                    @Override
+                    public void setUrl(String url) {
+                        dataSource.setUrl(url + ";IGNORECASE=TRUE");
+                    }
+
+                    @Override
+                    public void setUsername(String username) {
+                        dataSource.setUsername(username);
+                    }
+
+                    @Override
+                    public void setPassword(String password) {
+                        dataSource.setPassword(password);
+                    }
+                };
+            }
+
+            @Override
+            public DataSource getDataSource() {
+                return dataSource;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public CacheManager entityCacheManager(Environment env) {
+        net.sf.ehcache.config.Configuration configuration = new net.sf.ehcache.config.Configuration()
+                .name("rpg-" + CACHE_MANAGERS.incrementAndGet())
+                .defaultCache(new CacheConfiguration("default", 1000))
+                .cache(new CacheConfiguration(Player.CACHE_REGION,
+                        env.getProperty("game.entity-cache.max-entries", Integer.class, 10000))
+                        .timeToLiveSeconds(env.getProperty("game.entity-cache.ttl-seconds", Long.class, 300L))
+                        .memoryStoreEvictionPolicy(env.getProperty("game.entity-cache.eviction", "LRU")));
+        return new CacheManager(configuration);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory emf,
+                                                         PrometheusMeterRegistry meterRegistry) {
+        return new MeteredTransactionManager(emf, meterRegistry);
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public PrometheusMeterRegistry meterRegistry(ObjectProvider<MeterBinder> binders) {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().commonTags("application", "rpg");
+        new JvmMemoryMetrics().bindTo(registry);
+        new JvmGcMetrics().bindTo(registry);
+        new JvmThreadMetrics().bindTo(registry);
+        new ClassLoaderMetrics().bindTo(registry);
+        new ProcessorMetrics().bindTo(registry);
+        new UptimeMetrics().bindTo(registry);
+        binders.orderedStream().forEach(binder -> binder.bindTo(registry));
+        return registry;
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory emf) {
+        return new HibernateStatisticsMetrics(emf);
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return new EntityCacheMetrics(entityCacheManager.getEhcache(Player.CACHE_REGION));
+    }
+
     @Bean
-    public PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
-        JpaTransactionManager transactionManager = new JpaTransactionManager();
-        transactionManager.setEntityManagerFactory(emf);
+    public static RepositoryMetrics repositoryMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetrics(meterRegistry);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor queryExecutor(@Value("${game.search.threads:4}") int threads,
+                                                StatementCounter statementCounter) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("query-");
+        executor.setTaskDecorator(statementCounter);
+        return executor;
+    }
 
-        return transactionManager;
+    @Bean
+    public ThreadPoolTaskExecutor recomputeExecutor(@Value("${game.levels.recompute.threads:2}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("recompute-");
+        return executor;
+    }
+
+    @Bean
+    public LevelCurve levelCurve(Environment env) {
+        String thresholds = env.getProperty("game.level.thresholds", "").trim();
+        if (thresholds.isEmpty())
+            return LevelCurve.quadratic(env.getProperty("game.level.base", Integer.class, 50), Player.MAX_EXPERIENCE);
+        return LevelCurve.of(Arrays.stream(thresholds.split(","))
+                .mapToInt(threshold -> Integer.parseInt(threshold.trim()))
+                .toArray());
     }
 
     @Bean
@@ -77,9 +253,17 @@ public class AppConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
-    private Properties additionalProperties() {
+    private Properties additionalProperties(Environment env, CacheManager entityCacheManager,
+                                            StatementCounter statementCounter) {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
+        properties.setProperty("hibernate.generate_statistics", "true");
+        properties.put("hibernate.session_factory.statement_inspector", statementCounter);
+        properties.setProperty("hibernate.cache.use_second_level_cache",
+                env.getProperty("game.entity-cache.enabled", "true"));
+        properties.setProperty("hibernate.cache.region.factory_class", EhcacheRegionFactory.class.getName());
+        properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+        properties.setProperty("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
 
         return properties;
     }
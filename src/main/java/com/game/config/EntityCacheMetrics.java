@@ -0,0 +1,44 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the counters an Ehcache region keeps anyway, under the standard {@code cache.*} names. Unlike
+ * Micrometer's EhCache2Metrics it registers no heap-size gauge, which walks the whole cache graph on every scrape.
+ */
+public class EntityCacheMetrics implements MeterBinder {
+    private final String name;
+    private final StatisticsGateway statistics;
+
+    public EntityCacheMetrics(Ehcache cache) {
+        this.name = cache.getName();
+        this.statistics = cache.getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "cache.gets", "hit", s -> s.cacheHitCount());
+        counter(registry, "cache.gets", "miss", s -> s.cacheMissCount());
+        counter(registry, "cache.puts", null, s -> s.cachePutCount());
+        counter(registry, "cache.evictions", null, s -> s.cacheEvictedCount());
+        counter(registry, "cache.expirations", null, s -> s.cacheExpiredCount());
+        Gauge.builder("cache.size", statistics, s -> s.getSize())
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String meter, String result, ToDoubleFunction<StatisticsGateway> count) {
+        FunctionCounter.Builder<StatisticsGateway> builder = FunctionCounter.builder(meter, statistics, count)
+                .tag("cache", name);
+        if (result != null)
+            builder.tag("result", result);
+        builder.register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the session factory statistics that {@code hibernate.generate_statistics} already collects.
+ */
+public class HibernateStatisticsMetrics implements MeterBinder {
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.statements.prepared", s -> s.getPrepareStatementCount());
+        counter(registry, "hibernate.entities.loaded", s -> s.getEntityLoadCount());
+        counter(registry, "hibernate.entities.fetched", s -> s.getEntityFetchCount());
+        counter(registry, "hibernate.entities.inserted", s -> s.getEntityInsertCount());
+        counter(registry, "hibernate.entities.updated", s -> s.getEntityUpdateCount());
+        counter(registry, "hibernate.entities.deleted", s -> s.getEntityDeleteCount());
+        counter(registry, "hibernate.queries.executed", s -> s.getQueryExecutionCount());
+        counter(registry, "hibernate.transactions", s -> s.getTransactionCount());
+        counter(registry, "hibernate.flushes", s -> s.getFlushCount());
+        counter(registry, "hibernate.optimistic.failures", s -> s.getOptimisticFailureCount());
+        Gauge.builder("hibernate.queries.max.millis", statistics, s -> s.getQueryExecutionMaxTime())
+                .register(registry);
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            FunctionCounter.builder("hibernate.cache.requests", regionStatistics, r -> r.getHitCount())
+                    .tags("region", region, "result", "hit").register(registry);
+            FunctionCounter.builder("hibernate.cache.requests", regionStatistics, r -> r.getMissCount())
+                    .tags("region", region, "result", "miss").register(registry);
+            FunctionCounter.builder("hibernate.cache.puts", regionStatistics, r -> r.getPutCount())
+                    .tag("region", region).register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).register(registry);
+    }
+}
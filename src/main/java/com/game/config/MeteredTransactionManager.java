@@ -0,0 +1,44 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every outermost transaction from begin to completion, tagged by outcome and read-only flag.
+ */
+public class MeteredTransactionManager extends JpaTransactionManager {
+    private final transient MeterRegistry registry;
+
+    public MeteredTransactionManager(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        super(entityManagerFactory);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void prepareSynchronization(DefaultTransactionStatus status, TransactionDefinition definition) {
+        super.prepareSynchronization(status, definition);
+        if (!status.isNewTransaction() || !TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+        long start = System.nanoTime();
+        boolean readOnly = definition.isReadOnly();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completion) {
+                Timer.builder("game.transactions")
+                        .tag("outcome", completion == STATUS_COMMITTED ? "committed"
+                                : completion == STATUS_ROLLED_BACK ? "rolled_back" : "unknown")
+                        .tag("readOnly", String.valueOf(readOnly))
+                        .register(registry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.game.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+public class PoolMetrics implements MetricsTrackerFactory, MeterBinder {
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong usageMillis = new AtomicLong();
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new Tracker();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PoolStats pool = poolStats;
+        stats.put("pool", poolName);
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("pending", pool.getPendingThreads());
+            stats.put("minIdle", pool.getMinConnections());
+            stats.put("maxSize", pool.getMaxConnections());
+        }
+        long acquiredCount = acquired.get();
+        long releasedCount = released.get();
+        stats.put("acquired", acquiredCount);
+        stats.put("timeouts", timeouts.get());
+        stats.put("created", created.get());
+        stats.put("averageWaitMillis", acquiredCount == 0 ? 0.0 : toMillis(waitNanos.get()) / acquiredCount);
+        stats.put("maxWaitMillis", toMillis(maxWaitNanos.get()));
+        stats.put("averageUsageMillis", releasedCount == 0 ? 0.0 : (double) usageMillis.get() / releasedCount);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "db.pool.active", PoolStats::getActiveConnections);
+        gauge(registry, "db.pool.idle", PoolStats::getIdleConnections);
+        gauge(registry, "db.pool.total", PoolStats::getTotalConnections);
+        gauge(registry, "db.pool.pending", PoolStats::getPendingThreads);
+        gauge(registry, "db.pool.max", PoolStats::getMaxConnections);
+        FunctionTimer.builder("db.pool.acquire", this, m -> m.acquired.get(), m -> m.waitNanos.get(),
+                TimeUnit.NANOSECONDS).register(registry);
+        FunctionCounter.builder("db.pool.timeouts", this, m -> m.timeouts.get()).register(registry);
+        FunctionCounter.builder("db.pool.created", this, m -> m.created.get()).register(registry);
+        FunctionTimer.builder("db.pool.usage", this, m -> m.released.get(), m -> m.usageMillis.get(),
+                TimeUnit.MILLISECONDS).register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, this, m -> m.poolStats == null ? Double.NaN : value.applyAsInt(m.poolStats))
+                .register(registry);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private final class Tracker implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.incrementAndGet();
+            waitNanos.addAndGet(elapsedAcquiredNanos);
+            maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            released.incrementAndGet();
+            usageMillis.addAndGet(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.incrementAndGet();
+        }
+    }
+}
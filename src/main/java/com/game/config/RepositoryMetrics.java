@@ -0,0 +1,67 @@
+package com.game.config;
+
+import com.game.repository.GameRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the {@link GameRepository} bean so every call is timed per method, and the size of collection results is
+ * recorded as rows returned.
+ */
+public class RepositoryMetrics implements BeanPostProcessor {
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public RepositoryMetrics(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof GameRepository))
+            return bean;
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addInterface(GameRepository.class);
+        proxyFactory.addAdvice(new Interceptor(registry.getObject()));
+        return proxyFactory.getProxy();
+    }
+
+    private static final class Interceptor implements MethodInterceptor {
+        private final MeterRegistry registry;
+
+        Interceptor(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String method = invocation.getMethod().getName();
+            long start = System.nanoTime();
+            String outcome = "error";
+            try {
+                Object result = invocation.proceed();
+                outcome = "success";
+                if (result instanceof Collection)
+                    DistributionSummary.builder("game.repository.rows")
+                            .tag("method", method)
+                            .register(registry)
+                            .record(((Collection<?>) result).size());
+                return result;
+            } finally {
+                Timer.builder("game.repository.calls")
+                        .tag("method", method)
+                        .tag("outcome", outcome)
+                        .register(registry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.game.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency and Hibernate statement count per endpoint, keyed by the mapped URI pattern so that path
+ * variables do not explode the number of series.
+ */
+public class RequestMetrics implements HandlerInterceptor {
+    private static final String START = RequestMetrics.class.getName() + ".start";
+    private static final String STATEMENTS = RequestMetrics.class.getName() + ".statements";
+
+    private final MeterRegistry registry;
+    private final StatementCounter statementCounter;
+    private final boolean histograms;
+
+    public RequestMetrics(MeterRegistry registry, StatementCounter statementCounter, boolean histograms) {
+        this.registry = registry;
+        this.statementCounter = statementCounter;
+        this.histograms = histograms;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, System.nanoTime());
+        request.setAttribute(STATEMENTS, statementCounter.begin());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Long start = (Long) request.getAttribute(START);
+        AtomicInteger statements = (AtomicInteger) request.getAttribute(STATEMENTS);
+        statementCounter.end();
+        if (start == null)
+            return;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String status = ex != null && response.getStatus() < 400 ? "500" : String.valueOf(response.getStatus());
+
+        Timer.builder("http.server.requests")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", status)
+                .publishPercentileHistogram(histograms)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("http.server.statements")
+                .description("SQL statements prepared by Hibernate per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(statements.get());
+    }
+}
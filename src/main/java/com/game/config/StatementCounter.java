@@ -0,0 +1,48 @@
+package com.game.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on behalf of the current request. The counter follows the request
+ * onto executor threads through {@link #decorate(Runnable)}, so the parallel count and facet queries of a search
+ * are charged to the request that issued them.
+ */
+public class StatementCounter implements StatementInspector, TaskDecorator {
+    private final ThreadLocal<AtomicInteger> current = new ThreadLocal<>();
+
+    public AtomicInteger begin() {
+        AtomicInteger counter = new AtomicInteger();
+        current.set(counter);
+        return counter;
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = current.get();
+        if (counter != null)
+            counter.incrementAndGet();
+        return sql;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AtomicInteger counter = current.get();
+        if (counter == null)
+            return runnable;
+        return () -> {
+            current.set(counter);
+            try {
+                runnable.run();
+            } finally {
+                current.remove();
+            }
+        };
+    }
+}
@@ -2,13 +2,25 @@ package com.game.config;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.game.controller.PlayerJsonDeserializer;
+import com.game.controller.PlayerJsonSerializer;
+import com.game.entity.Player;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -21,7 +33,16 @@ import java.util.List;
 @EnableWebMvc
 @ComponentScan("com.game")
 public class WebConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+    private final boolean histograms;
 
+    public WebConfig(MeterRegistry meterRegistry, StatementCounter statementCounter,
+                     @Value("${game.metrics.histograms:true}") boolean histograms) {
+        this.meterRegistry = meterRegistry;
+        this.statementCounter = statementCounter;
+        this.histograms = histograms;
+    }
 
     @Bean
     public ViewResolver internalResourceViewResolver() {
@@ -42,11 +63,39 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/resources/**").addResourceLocations("/resources/");
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetrics(meterRegistry, statementCounter, histograms));
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return configure(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    /**
+     * Same mapping as {@link #objectMapper()} encoded as Smile, the binary JSON served to clients that send
+     * {@code Accept: application/x-jackson-smile}. Repeated enum values are back-referenced like field names,
+     * which matters for pages where race and profession repeat on every row.
+     */
+    public ObjectMapper smileObjectMapper() {
+        return configure(Jackson2ObjectMapperBuilder.smile()
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build());
+    }
+
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        converter.getObjectMapper().setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
-        converter.getObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        converters.add(converter);
+        converters.add(new MappingJackson2HttpMessageConverter(objectMapper()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileObjectMapper()));
+    }
+
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.registerModule(new SimpleModule("player")
+                .addSerializer(Player.class, new PlayerJsonSerializer())
+                .addDeserializer(Player.class, new PlayerJsonDeserializer()));
+        return objectMapper;
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.game.controller;
+
+import com.game.config.PoolMetrics;
+import com.game.repository.PlayerQueryShapes;
+import com.game.repository.SlowQueryLog;
+import com.game.service.EntityCache;
+import com.game.service.LevelRecomputeJob;
+import com.game.service.PlayerQueryCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class AdminController {
+    private final PlayerQueryCache queryCache;
+    private final EntityCache entityCache;
+    private final ObjectProvider<PoolMetrics> poolMetrics;
+    private final LevelRecomputeJob levelRecomputeJob;
+    private final PlayerQueryShapes queryShapes;
+    private final SlowQueryLog slowQueryLog;
+
+    @Autowired
+    public AdminController(PlayerQueryCache queryCache, EntityCache entityCache,
+                           ObjectProvider<PoolMetrics> poolMetrics, LevelRecomputeJob levelRecomputeJob,
+                           PlayerQueryShapes queryShapes, SlowQueryLog slowQueryLog) {
+        this.queryCache = queryCache;
+        this.entityCache = entityCache;
+        this.poolMetrics = poolMetrics;
+        this.levelRecomputeJob = levelRecomputeJob;
+        this.queryShapes = queryShapes;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @RequestMapping(value = "/rest/admin/query-cache", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> queryCacheStats() {
+        return new ResponseEntity<>(queryCache.getStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/query-cache", method = RequestMethod.DELETE)
+    public ResponseEntity<?> clearQueryCache() {
+        queryCache.clear();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/entity-cache", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> entityCacheStats() {
+        return new ResponseEntity<>(entityCache.getStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/entity-cache", method = RequestMethod.DELETE)
+    public ResponseEntity<?> clearEntityCache() {
+        entityCache.clear();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/query-shapes", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> queryShapeStats() {
+        return new ResponseEntity<>(queryShapes.getStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/query-shapes", method = RequestMethod.DELETE)
+    public ResponseEntity<?> clearQueryShapes() {
+        queryShapes.clear();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/slow-queries", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> slowQueryStats() {
+        return new ResponseEntity<>(slowQueryLog.getStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/slow-queries", method = RequestMethod.DELETE)
+    public ResponseEntity<?> clearSlowQueries() {
+        slowQueryLog.clear();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/pool", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> poolStats() {
+        PoolMetrics metrics = poolMetrics.getIfAvailable();
+        if (metrics == null)
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(metrics.getStats(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/levels/recompute", method = RequestMethod.POST)
+    public ResponseEntity<Map<String, Object>> startLevelRecompute() {
+        if (!levelRecomputeJob.start())
+            return new ResponseEntity<>(levelRecomputeJob.getStatus(), HttpStatus.CONFLICT);
+        return new ResponseEntity<>(levelRecomputeJob.getStatus(), HttpStatus.ACCEPTED);
+    }
+
+    @RequestMapping(value = "/rest/admin/levels/recompute", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> levelRecomputeStatus() {
+        return new ResponseEntity<>(levelRecomputeJob.getStatus(), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/admin/levels/recompute", method = RequestMethod.DELETE)
+    public ResponseEntity<?> cancelLevelRecompute() {
+        if (!levelRecomputeJob.cancel())
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
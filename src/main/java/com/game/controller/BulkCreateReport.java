@@ -0,0 +1,76 @@
+package com.game.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkCreateReport {
+    public enum Status {
+        CREATED, INVALID, FAILED
+    }
+
+    private int created;
+    private int invalid;
+    private int failed;
+    private final List<Row> rows = new ArrayList<>();
+
+    public void created(int row, Long id) {
+        created++;
+        rows.add(new Row(row, Status.CREATED, id, null));
+    }
+
+    public void invalid(int row, String error) {
+        invalid++;
+        rows.add(new Row(row, Status.INVALID, null, error));
+    }
+
+    public void failed(int row, String error) {
+        failed++;
+        rows.add(new Row(row, Status.FAILED, null, error));
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public static class Row {
+        private final int row;
+        private final Status status;
+        private final Long id;
+        private final String error;
+
+        Row(int row, Status status, Long id, String error) {
+            this.row = row;
+            this.status = status;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
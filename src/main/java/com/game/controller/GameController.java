@@ -1,25 +1,60 @@
 package com.game.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import com.game.repository.PlayerPatch;
+import com.game.repository.PlayerSearchResult;
 import com.game.service.GameService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class GameController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final MediaType SMILE_TYPE = MediaType.parseMediaType(SMILE_VALUE);
+    private static final List<String> VARY_ACCEPT = Collections.singletonList(HttpHeaders.ACCEPT);
+
     private final GameService gameService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${game.bulk.batch-size:500}")
+    private int bulkBatchSize;
 
     @Autowired
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, ObjectMapper objectMapper) {
         this.gameService = gameService;
+        this.objectMapper = objectMapper;
     }
 
     @RequestMapping(value = "/rest/players", method = RequestMethod.GET)
@@ -32,35 +67,179 @@ public class GameController {
                                                    Integer minLevel, Integer maxLevel,
                                                    @RequestParam(defaultValue = "ID") PlayerOrder order,
                                                    @RequestParam(defaultValue = "0") Integer pageNumber,
-                                                   @RequestParam(defaultValue = "3") Integer pageSize) {
-        final List<Player> players = gameService.getPlayers(name, title, race, profession, after, before, banned,
+                                                   @RequestParam(defaultValue = "3") Integer pageSize,
+                                                   String cursor,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        final List<Player> players;
+        if (cursor != null && !cursor.isEmpty()) {
+            PlayerCursor position = PlayerCursor.decode(cursor, order);
+            if (position == null)
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            players = gameService.getPlayers(name, title, race, profession, after, before, banned,
+                    minExperience, maxExperience, minLevel, maxLevel, order, position, pageSize);
+        } else {
+            players = gameService.getPlayers(name, title, race, profession, after, before, banned,
+                    minExperience, maxExperience, minLevel, maxLevel, order, pageNumber, pageSize);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (!players.isEmpty() && players.size() == pageSize)
+            headers.set(NEXT_CURSOR_HEADER, PlayerCursor.of(order, players.get(players.size() - 1)).encode());
+        // The page (and its cursor) is fully determined by the ids and versions it holds; a matching
+        // If-None-Match is answered with 304 by the return value handler before anything is serialized.
+        headers.setETag(pageETag(players, accept));
+        headers.setVary(VARY_ACCEPT);
+        return new ResponseEntity<>(players, headers, HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/players/search", method = RequestMethod.GET)
+    public ResponseEntity<PlayerSearchResult> search(String name, String title,
+                                                     Race race,
+                                                     Profession profession,
+                                                     Long after, Long before,
+                                                     Boolean banned,
+                                                     Integer minExperience, Integer maxExperience,
+                                                     Integer minLevel, Integer maxLevel,
+                                                     @RequestParam(defaultValue = "ID") PlayerOrder order,
+                                                     @RequestParam(defaultValue = "0") Integer pageNumber,
+                                                     @RequestParam(defaultValue = "3") Integer pageSize) {
+        final PlayerSearchResult result = gameService.search(name, title, race, profession, after, before, banned,
                 minExperience, maxExperience, minLevel, maxLevel, order, pageNumber, pageSize);
 
-        return new ResponseEntity<>(players, HttpStatus.OK);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/rest/players/export", method = RequestMethod.GET)
+    public void export(String name, String title,
+                       Race race,
+                       Profession profession,
+                       Long after, Long before,
+                       Boolean banned,
+                       Integer minExperience, Integer maxExperience,
+                       Integer minLevel, Integer maxLevel,
+                       @RequestParam(defaultValue = "ID") PlayerOrder order,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        final PlayerExportWriter writer;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            response.setContentType(NDJSON_VALUE);
+            writer = PlayerExportWriter.ndjson(objectMapper, response.getOutputStream());
+        } else if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"players.csv\"");
+            writer = PlayerExportWriter.csv(response.getOutputStream());
+        } else {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        try {
+            gameService.export(name, title, race, profession, after, before, banned, minExperience, maxExperience,
+                    minLevel, maxLevel, order, player -> {
+                        try {
+                            writer.write(player);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.close();
+        }
     }
 
     @RequestMapping(value = "/rest/players", method = RequestMethod.POST)
     public ResponseEntity<?> create(@RequestBody Player player) {
-        if (player.getName() == null
-                || player.getTitle() == null
-                || player.getRace() == null
-                || player.getProfession() == null
-                || player.getBirthday() == null
-                || player.getExperience() == null)
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        if (player.getName().length() > 12 || player.getTitle().length() > 30 || player.getName().trim().isEmpty())
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        if (player.getExperience() < 0 || player.getExperience() > 10_000_000)
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        if (player.getBirthday().getTime() < 0)
-            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
-        LocalDate birthday = player.getBirthday().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        if (birthday.getYear() < 2000 || birthday.getYear() > 3000)
+        if (!PlayerValidator.isValidForCreate(player))
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         gameService.create(player);
         return new ResponseEntity<>(player, HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/rest/players/bulk", method = RequestMethod.POST,
+            consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public ResponseEntity<BulkCreateReport> bulkCreate(HttpServletRequest request) throws IOException {
+        BulkCreateReport report = new BulkCreateReport();
+        List<Player> batch = new ArrayList<>(bulkBatchSize);
+        List<Integer> batchRows = new ArrayList<>(bulkBatchSize);
+        int row = 0;
+        try (MappingIterator<Player> players = objectMapper.readerFor(Player.class)
+                .readValues(request.getInputStream())) {
+            while (players.hasNextValue()) {
+                Player player;
+                try {
+                    player = players.nextValue();
+                } catch (JsonMappingException e) {
+                    report.invalid(row++, e.getOriginalMessage());
+                    continue;
+                }
+                if (!PlayerValidator.isValidForCreate(player)) {
+                    report.invalid(row++, "Player does not pass create validation");
+                    continue;
+                }
+                batch.add(player);
+                batchRows.add(row++);
+                if (batch.size() == bulkBatchSize)
+                    createBatch(batch, batchRows, report);
+            }
+        } catch (JsonProcessingException e) {
+            report.invalid(row, e.getOriginalMessage());
+        }
+        createBatch(batch, batchRows, report);
+        report.getRows().sort(Comparator.comparingInt(BulkCreateReport.Row::getRow));
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    static String playerETag(long id, long version, String accept) {
+        return "\"" + id + "-" + version + representation(accept) + "\"";
+    }
+
+    static String pageETag(List<Player> players, String accept) {
+        StringBuilder versions = new StringBuilder(players.size() * 12);
+        for (Player player : players)
+            versions.append(player.getId()).append(':').append(player.getVersion()).append(',');
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.US_ASCII))
+                + representation(accept) + "\"";
+    }
+
+    /**
+     * Strong ETags must differ between the JSON and Smile encodings of the same resource. Mirrors the converter
+     * order: the first acceptable type that JSON satisfies wins, so wildcards resolve to JSON.
+     */
+    private static String representation(String accept) {
+        if (accept == null || !accept.contains(SMILE_VALUE))
+            return "";
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(types);
+            for (MediaType type : types) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON))
+                    return "";
+                if (type.isCompatibleWith(SMILE_TYPE))
+                    return "-smile";
+            }
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        return "";
+    }
+
+    private void createBatch(List<Player> batch, List<Integer> batchRows, BulkCreateReport report) {
+        if (batch.isEmpty())
+            return;
+        try {
+            gameService.createAll(batch);
+            for (int i = 0; i < batch.size(); i++)
+                report.created(batchRows.get(i), batch.get(i).getId());
+        } catch (DataAccessException | TransactionException e) {
+            for (Integer batchRow : batchRows)
+                report.failed(batchRow, e.getMostSpecificCause().getMessage());
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
     @RequestMapping(value = "/rest/players/count", method = RequestMethod.GET)
     public ResponseEntity<Integer> playersCount(String name, String title,
                                                 Race race,
@@ -75,15 +254,32 @@ public class GameController {
         return new ResponseEntity<>(count, HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/rest/players/stats", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> playersStats() {
+        Map<String, Object> stats = gameService.getStats();
+        if (stats == null)
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/rest/players/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Player> getPlayer(@PathVariable("id") Long id) {
+    public ResponseEntity<Player> getPlayer(@PathVariable("id") Long id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                            WebRequest request) {
         if (id == null || id < 1)
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
 
+        // Revalidation only needs the row version, so the entity is not loaded when the client's copy is current.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = gameService.getVersion(id);
+            if (version != null && request.checkNotModified(playerETag(id, version, accept)))
+                return null;
+        }
+
         final Player player = gameService.getPlayer(id);
 
         return player != null
-                ? new ResponseEntity<>(player, HttpStatus.OK)
+                ? ResponseEntity.ok().eTag(playerETag(id, player.getVersion(), accept)).varyBy(HttpHeaders.ACCEPT).body(player)
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
@@ -115,6 +311,26 @@ public class GameController {
                 : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @RequestMapping(value = "/rest/players/bulk-patch", method = RequestMethod.POST)
+    public ResponseEntity<Integer> patch(String name, String title,
+                                         Race race,
+                                         Profession profession,
+                                         Long after, Long before,
+                                         Boolean banned,
+                                         Integer minExperience, Integer maxExperience,
+                                         Integer minLevel, Integer maxLevel,
+                                         @RequestBody PlayerPatch patch) {
+        if (patch == null || patch.isEmpty())
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        if (patch.getTitle() != null && patch.getTitle().length() > 30)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+
+        int updated = gameService.patch(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel, patch);
+
+        return new ResponseEntity<>(updated, HttpStatus.OK);
+    }
+
     @RequestMapping(value = "/rest/players/{id}", method = RequestMethod.DELETE)
     public ResponseEntity<?> delete(@PathVariable(name = "id") Long id) {
         if (id == null || id < 1)
@@ -0,0 +1,64 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.service.ImportProgress;
+import com.game.service.PlayerImportReader;
+import com.game.service.PlayerImporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@RestController
+public class ImportController {
+    public static final String CSV_VALUE = "text/csv";
+
+    private final PlayerImporter playerImporter;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ImportController(PlayerImporter playerImporter, ObjectMapper objectMapper) {
+        this.playerImporter = playerImporter;
+        this.objectMapper = objectMapper;
+    }
+
+    @RequestMapping(value = "/rest/players/import", method = RequestMethod.POST,
+            consumes = {GameController.NDJSON_VALUE, CSV_VALUE})
+    public void importPlayers(@RequestParam String importId, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (importId.isEmpty() || importId.length() > 100) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        response.setContentType(GameController.NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writer();
+        try (PlayerImportReader reader = request.getContentType().startsWith(CSV_VALUE)
+                ? PlayerImportReader.csv(request.getInputStream())
+                : PlayerImportReader.ndjson(objectMapper, request.getInputStream())) {
+            playerImporter.run(importId, reader, progress -> write(writer, out, progress));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(ObjectWriter writer, OutputStream out, ImportProgress progress) {
+        try {
+            out.write(writer.writeValueAsBytes(progress));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.game.controller;
+
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.LeaderboardEntry;
+import com.game.service.GameService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class LeaderboardController {
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_RADIUS = 100;
+
+    private final GameService gameService;
+
+    @Autowired
+    public LeaderboardController(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    @RequestMapping(value = "/rest/leaderboard", method = RequestMethod.GET)
+    public ResponseEntity<List<LeaderboardEntry>> top(Race race, Profession profession,
+                                                      @RequestParam(defaultValue = "100") Integer limit) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        return entries(gameService.getLeaderboard(race, profession, 1, limit));
+    }
+
+    @RequestMapping(value = "/rest/leaderboard/around", method = RequestMethod.GET)
+    public ResponseEntity<List<LeaderboardEntry>> around(Race race, Profession profession,
+                                                         @RequestParam Integer rank,
+                                                         @RequestParam(defaultValue = "5") Integer radius) {
+        if (rank < 1 || radius < 0 || radius > MAX_RADIUS)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        int from = Math.max(rank - radius, 1);
+        return entries(gameService.getLeaderboard(race, profession, from, rank + radius - from + 1));
+    }
+
+    @RequestMapping(value = "/rest/leaderboard/players/{id}", method = RequestMethod.GET)
+    public ResponseEntity<LeaderboardEntry> rank(@PathVariable("id") Long id, Race race, Profession profession) {
+        if (id == null || id < 1)
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        LeaderboardEntry entry = gameService.getLeaderboardRank(id, race, profession);
+        if (entry == null)
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(entry, HttpStatus.OK);
+    }
+
+    private static ResponseEntity<List<LeaderboardEntry>> entries(List<LeaderboardEntry> entries) {
+        if (entries == null)
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(entries, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,77 @@
+package com.game.controller;
+
+import com.game.entity.Player;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public final class PlayerCursor {
+    private static final String SEPARATOR = ":";
+
+    private final PlayerOrder order;
+    private final long id;
+    private final Object value;
+
+    private PlayerCursor(PlayerOrder order, long id, Object value) {
+        this.order = order;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static PlayerCursor of(PlayerOrder order, Player last) {
+        switch (order) {
+            case NAME:
+                return new PlayerCursor(order, last.getId(), last.getName());
+            case EXPERIENCE:
+                return new PlayerCursor(order, last.getId(), last.getExperience());
+            case BIRTHDAY:
+                return new PlayerCursor(order, last.getId(), last.getBirthday());
+            case LEVEL:
+                return new PlayerCursor(order, last.getId(), last.getLevel());
+            default:
+                return new PlayerCursor(order, last.getId(), null);
+        }
+    }
+
+    public static PlayerCursor decode(String token, PlayerOrder order) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 3);
+            if (parts.length < 2 || PlayerOrder.valueOf(parts[0]) != order)
+                return null;
+            long id = Long.parseLong(parts[1]);
+            if (parts.length == 2 || order == PlayerOrder.ID)
+                return new PlayerCursor(order, id, null);
+            switch (order) {
+                case NAME:
+                    return new PlayerCursor(order, id, parts[2]);
+                case BIRTHDAY:
+                    return new PlayerCursor(order, id, new Date(Long.parseLong(parts[2])));
+                default:
+                    return new PlayerCursor(order, id, Integer.valueOf(parts[2]));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder(order.name()).append(SEPARATOR).append(id);
+        if (value != null)
+            sb.append(SEPARATOR).append(value instanceof Date ? ((Date) value).getTime() : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PlayerOrder getOrder() {
+        return order;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.entity.Player;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+abstract class PlayerExportWriter implements Closeable {
+
+    abstract void write(Player player) throws IOException;
+
+    static PlayerExportWriter ndjson(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Root values are otherwise separated by a space, which would start every line after the first.
+        generator.setRootValueSeparator(null);
+        return new PlayerExportWriter() {
+            @Override
+            void write(Player player) throws IOException {
+                generator.writeObject(player);
+                generator.writeRaw('\n');
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    static PlayerExportWriter csv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel\n");
+        return new PlayerExportWriter() {
+            @Override
+            void write(Player player) throws IOException {
+                writer.write(String.valueOf(player.getId()));
+                writer.write(',');
+                writeText(player.getName());
+                writer.write(',');
+                writeText(player.getTitle());
+                writer.write(',');
+                writeValue(player.getRace());
+                writer.write(',');
+                writeValue(player.getProfession());
+                writer.write(',');
+                writeValue(player.getBirthday() == null ? null : player.getBirthday().getTime());
+                writer.write(',');
+                writeValue(player.getBanned());
+                writer.write(',');
+                writeValue(player.getExperience());
+                writer.write(',');
+                writeValue(player.getLevel());
+                writer.write(',');
+                writeValue(player.getUntilNextLevel());
+                writer.write('\n');
+            }
+
+            private void writeValue(Object value) throws IOException {
+                if (value != null)
+                    writer.write(value.toString());
+            }
+
+            private void writeText(String value) throws IOException {
+                if (value == null)
+                    return;
+                if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                        && value.indexOf('\r') < 0) {
+                    writer.write(value);
+                    return;
+                }
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+}
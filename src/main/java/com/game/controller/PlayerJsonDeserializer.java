@@ -0,0 +1,131 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads create and update bodies into a {@link Player} without bean introspection. Plain tokens (ints, strings,
+ * exact enum names, epoch-millis dates) are handled inline; anything else, such as numbers sent as strings, is
+ * delegated to the standard deserializer of the field's type so coercions and error messages stay the same.
+ */
+public class PlayerJsonDeserializer extends StdDeserializer<Player> {
+    private static final Map<String, Race> RACES = names(Race.values());
+    private static final Map<String, Profession> PROFESSIONS = names(Profession.values());
+
+    public PlayerJsonDeserializer() {
+        super(Player.class);
+    }
+
+    @Override
+    public Player deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String field;
+        if (p.isExpectedStartObjectToken())
+            field = p.nextFieldName();
+        else if (p.hasToken(JsonToken.FIELD_NAME))
+            field = p.getCurrentName();
+        else if (p.hasToken(JsonToken.END_OBJECT))
+            field = null;
+        else
+            return (Player) ctxt.handleUnexpectedToken(Player.class, p);
+
+        Player player = new Player();
+        for (; field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (field) {
+                case "id":
+                    player.setId(readLong(p, ctxt, token));
+                    break;
+                case "name":
+                    player.setName(readString(p, ctxt, token));
+                    break;
+                case "title":
+                    player.setTitle(readString(p, ctxt, token));
+                    break;
+                case "race":
+                    player.setRace(readEnum(p, ctxt, token, RACES, Race.class));
+                    break;
+                case "profession":
+                    player.setProfession(readEnum(p, ctxt, token, PROFESSIONS, Profession.class));
+                    break;
+                case "experience":
+                    player.setExperience(readInteger(p, ctxt, token));
+                    break;
+                case "level":
+                    player.setLevel(readInteger(p, ctxt, token));
+                    break;
+                case "untilNextLevel":
+                    player.setUntilNextLevel(readInteger(p, ctxt, token));
+                    break;
+                case "birthday":
+                    player.setBirthday(token == JsonToken.VALUE_NUMBER_INT ? new Date(p.getLongValue())
+                            : token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Date.class));
+                    break;
+                case "banned":
+                    player.setBanned(token == JsonToken.VALUE_TRUE ? Boolean.TRUE
+                            : token == JsonToken.VALUE_FALSE ? Boolean.FALSE
+                            : token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Boolean.class));
+                    break;
+                case "version":
+                    // @JsonIgnore on the entity; the version travels in ETag headers only.
+                    p.skipChildren();
+                    break;
+                default:
+                    ctxt.handleUnknownProperty(p, this, Player.class, field);
+            }
+        }
+        return player;
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING)
+            return p.getText();
+        if (token == JsonToken.VALUE_NULL)
+            return null;
+        return ctxt.readValue(p, String.class);
+    }
+
+    private static Long readLong(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER)
+            return p.getLongValue();
+        if (token == JsonToken.VALUE_NULL)
+            return null;
+        return ctxt.readValue(p, Long.class);
+    }
+
+    private static Integer readInteger(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT)
+            return p.getIntValue();
+        if (token == JsonToken.VALUE_NULL)
+            return null;
+        return ctxt.readValue(p, Integer.class);
+    }
+
+    private static <E extends Enum<E>> E readEnum(JsonParser p, DeserializationContext ctxt, JsonToken token,
+                                                  Map<String, E> names, Class<E> type) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            E value = names.get(p.getText());
+            if (value != null)
+                return value;
+        } else if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return ctxt.readValue(p, type);
+    }
+
+    private static <E extends Enum<E>> Map<String, E> names(E[] values) {
+        Map<String, E> names = new HashMap<>();
+        for (E value : values)
+            names.put(value.name(), value);
+        return names;
+    }
+}
@@ -0,0 +1,101 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Writes a {@link Player} straight to the generator, producing the same bytes as the field-visibility bean
+ * serializer: fields in declaration order, nulls written out and dates as epoch millis. Field names and enum
+ * values are pre-encoded once.
+ */
+public class PlayerJsonSerializer extends StdSerializer<Player> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString RACE = new SerializedString("race");
+    private static final SerializedString PROFESSION = new SerializedString("profession");
+    private static final SerializedString EXPERIENCE = new SerializedString("experience");
+    private static final SerializedString LEVEL = new SerializedString("level");
+    private static final SerializedString UNTIL_NEXT_LEVEL = new SerializedString("untilNextLevel");
+    private static final SerializedString BIRTHDAY = new SerializedString("birthday");
+    private static final SerializedString BANNED = new SerializedString("banned");
+
+    private static final SerializedString[] RACES = names(Race.values());
+    private static final SerializedString[] PROFESSIONS = names(Profession.values());
+
+    public PlayerJsonSerializer() {
+        super(Player.class);
+    }
+
+    @Override
+    public void serialize(Player player, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(player);
+
+        gen.writeFieldName(ID);
+        if (player.getId() == null)
+            gen.writeNull();
+        else
+            gen.writeNumber(player.getId());
+
+        gen.writeFieldName(NAME);
+        gen.writeString(player.getName());
+        gen.writeFieldName(TITLE);
+        gen.writeString(player.getTitle());
+
+        gen.writeFieldName(RACE);
+        if (player.getRace() == null)
+            gen.writeNull();
+        else
+            gen.writeString(RACES[player.getRace().ordinal()]);
+        gen.writeFieldName(PROFESSION);
+        if (player.getProfession() == null)
+            gen.writeNull();
+        else
+            gen.writeString(PROFESSIONS[player.getProfession().ordinal()]);
+
+        writeInteger(gen, EXPERIENCE, player.getExperience());
+        writeInteger(gen, LEVEL, player.getLevel());
+        writeInteger(gen, UNTIL_NEXT_LEVEL, player.getUntilNextLevel());
+
+        gen.writeFieldName(BIRTHDAY);
+        Date birthday = player.getBirthday();
+        if (birthday == null)
+            gen.writeNull();
+        else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS))
+            gen.writeNumber(birthday.getTime());
+        else
+            provider.defaultSerializeDateValue(birthday, gen);
+
+        gen.writeFieldName(BANNED);
+        if (player.getBanned() == null)
+            gen.writeNull();
+        else
+            gen.writeBoolean(player.getBanned());
+
+        gen.writeEndObject();
+    }
+
+    private static void writeInteger(JsonGenerator gen, SerializedString field, Integer value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null)
+            gen.writeNull();
+        else
+            gen.writeNumber(value);
+    }
+
+    private static SerializedString[] names(Enum<?>[] values) {
+        SerializedString[] names = new SerializedString[values.length];
+        for (Enum<?> value : values)
+            names[value.ordinal()] = new SerializedString(value.name());
+        return names;
+    }
+}
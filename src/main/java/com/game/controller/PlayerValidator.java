@@ -0,0 +1,31 @@
+package com.game.controller;
+
+import com.game.entity.Player;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+public final class PlayerValidator {
+
+    private PlayerValidator() {
+    }
+
+    public static boolean isValidForCreate(Player player) {
+        if (player == null
+                || player.getName() == null
+                || player.getTitle() == null
+                || player.getRace() == null
+                || player.getProfession() == null
+                || player.getBirthday() == null
+                || player.getExperience() == null)
+            return false;
+        if (player.getName().length() > 12 || player.getTitle().length() > 30 || player.getName().trim().isEmpty())
+            return false;
+        if (player.getExperience() < 0 || player.getExperience() > Player.MAX_EXPERIENCE)
+            return false;
+        if (player.getBirthday().getTime() < 0)
+            return false;
+        LocalDate birthday = player.getBirthday().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return birthday.getYear() >= 2000 && birthday.getYear() <= 3000;
+    }
+}
@@ -0,0 +1,48 @@
+package com.game.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+@Entity
+@Table(name = "player_import")
+public class ImportCheckpoint {
+    @Id
+    private String id;
+
+    private Long rowsCommitted;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updated;
+
+    public ImportCheckpoint() {
+    }
+
+    public ImportCheckpoint(String id) {
+        this.id = id;
+        this.rowsCommitted = 0L;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public void setRowsCommitted(Long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public Date getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Date updated) {
+        this.updated = updated;
+    }
+}
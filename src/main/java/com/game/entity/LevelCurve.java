@@ -0,0 +1,68 @@
+package com.game.entity;
+
+import java.util.Arrays;
+
+public final class LevelCurve {
+    private final int[] thresholds;
+    private final int quadraticBase;
+
+    private LevelCurve(int[] thresholds, int quadraticBase) {
+        this.thresholds = thresholds;
+        this.quadraticBase = quadraticBase;
+    }
+
+    public static LevelCurve quadratic(int base, int maxExperience) {
+        if (base < 1)
+            throw new IllegalArgumentException("Level curve base must be positive: " + base);
+        int[] thresholds = new int[16];
+        int count = 0;
+        long threshold;
+        int level = 0;
+        do {
+            threshold = (long) base * level * (level + 1);
+            if (threshold > Integer.MAX_VALUE)
+                break;
+            if (count == thresholds.length)
+                thresholds = Arrays.copyOf(thresholds, count * 2);
+            thresholds[count++] = (int) threshold;
+            level++;
+        } while (threshold <= maxExperience);
+        return new LevelCurve(Arrays.copyOf(thresholds, count), base);
+    }
+
+    public static LevelCurve of(int... thresholds) {
+        if (thresholds.length == 0 || thresholds[0] != 0)
+            throw new IllegalArgumentException("Level curve must start at 0 experience");
+        for (int i = 1; i < thresholds.length; i++) {
+            if (thresholds[i] <= thresholds[i - 1])
+                throw new IllegalArgumentException("Level thresholds must be strictly increasing at level " + i);
+        }
+        return new LevelCurve(thresholds.clone(), 0);
+    }
+
+    public int getLevel(int experience) {
+        int position = Arrays.binarySearch(thresholds, experience);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    public int getUntilNextLevel(int experience) {
+        int next = getLevel(experience) + 1;
+        return next < thresholds.length ? thresholds[next] - experience : 0;
+    }
+
+    public int getMaxLevel() {
+        return thresholds.length - 1;
+    }
+
+    public int getThreshold(int level) {
+        return thresholds[level];
+    }
+
+    public boolean isQuadratic() {
+        return quadraticBase > 0;
+    }
+
+    public int getQuadraticBase() {
+        return quadraticBase;
+    }
+}
@@ -1,12 +1,24 @@
 package com.game.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Date;
 
 @Entity
 @Table(name = "player")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Player.CACHE_REGION)
+@DynamicUpdate
 public class Player implements Serializable {
+    public static final String CACHE_REGION = "player";
+    public static final int MAX_EXPERIENCE = 10_000_000;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -15,6 +27,10 @@ public class Player implements Serializable {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     private String name;
 
     private String title;
@@ -36,9 +52,31 @@ public class Player implements Serializable {
 
     private Boolean banned = false;
 
+    // Served as the ETag rather than in the body. A plain column, not @Version: writes are last-writer-wins.
+    // Updates increment it in SQL like the bulk writes do, so an entity read before a concurrent write can never
+    // store a version that was already served; the parameter (the caller's own increment) is only a lower bound.
+    @Column(insertable = false)
+    @ColumnTransformer(write = "greatest(version + 1, ?)")
+    @JsonIgnore
+    private Long version;
+
     public Player() {
     }
 
+    public Player(Player player) {
+        this.id = player.id;
+        this.name = player.name;
+        this.title = player.title;
+        this.race = player.race;
+        this.profession = player.profession;
+        this.experience = player.experience;
+        this.level = player.level;
+        this.untilNextLevel = player.untilNextLevel;
+        this.birthday = player.birthday;
+        this.banned = player.banned;
+        this.version = player.version;
+    }
+
     public String getName() {
         return name;
     }
@@ -87,9 +125,8 @@ public class Player implements Serializable {
         this.level = level;
     }
 
-    public void calcLevel() {
-        double lvl = (Math.sqrt(2500+200*experience) - 50) / 100;
-        this.level = (Integer) (int) lvl;
+    public void calcLevel(LevelCurve curve) {
+        this.level = curve.getLevel(experience);
     }
 
     public Integer getUntilNextLevel() {
@@ -100,8 +137,8 @@ public class Player implements Serializable {
         this.untilNextLevel = untilNextLevel;
     }
 
-    public void calcUntilNextLevel() {
-        this.untilNextLevel = 50 * (level + 1) * (level + 2) - experience;
+    public void calcUntilNextLevel(LevelCurve curve) {
+        this.untilNextLevel = curve.getUntilNextLevel(experience);
     }
 
     public Date getBirthday() {
@@ -119,4 +156,12 @@ public class Player implements Serializable {
     public void setBanned(Boolean banned) {
         this.banned = banned;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
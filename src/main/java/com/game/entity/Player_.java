@@ -25,4 +25,6 @@ public abstract class Player_ {
     public static volatile SingularAttribute<Player, Date> birthday;
 
     public static volatile SingularAttribute<Player, Boolean> banned;
+
+    public static volatile SingularAttribute<Player, Long> version;
 }
@@ -1,26 +1,58 @@
 package com.game.repository;
 
+import com.game.controller.PlayerCursor;
 import com.game.controller.PlayerOrder;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GameRepository {
     List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
                             Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                             Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize);
 
+    List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
+                            Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                            Integer maxLevel, PlayerOrder order, PlayerCursor cursor, int pageSize);
+
+    PlayerSearchResult search(String name, String title, Race race, Profession profession, Long after, Long before,
+                              Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                              Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize);
+
     Integer playersCount(String name, String title, Race race, Profession profession, Long after, Long before,
                          Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                          Integer maxLevel);
 
     void create(Player player);
 
+    void createAll(List<Player> players);
+
+    Long getImportCheckpoint(String importId);
+
+    void saveImportCheckpoint(String importId, long rowsCommitted);
+
     boolean delete(Long id);
 
     Player getPlayer(Long id);
 
+    Long getVersion(Long id);
+
+    List<Player> getPlayersById(long[] ids);
+
     Player update(Long id, Player player);
+
+    void forEachPlayer(String name, String title, Race race, Profession profession, Long after, Long before,
+                       Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                       Integer maxLevel, PlayerOrder order, Consumer<Player> consumer);
+
+    int patch(String name, String title, Race race, Profession profession, Long after, Long before,
+              Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+              Integer maxLevel, PlayerPatch patch);
+
+    long getMaxId();
+
+    int recomputeLevels(long fromId, long toId);
 }
@@ -1,61 +1,240 @@
 package com.game.repository;
 
+import com.game.controller.PlayerCursor;
 import com.game.controller.PlayerOrder;
+import com.game.entity.ImportCheckpoint;
+import com.game.entity.LevelCurve;
 import com.game.entity.Player;
 import com.game.entity.Player_;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
-import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Repository
 public class GameRepositoryImpl implements GameRepository{
+    private static final String INSERT = "INSERT INTO player"
+            + " (name, title, race, profession, birthday, banned, experience, level, untilNextLevel)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_LEVELS = "SELECT id, experience, level, untilNextLevel FROM player"
+            + " WHERE id >= ? AND id < ?";
+    // The experience guard skips rows changed since they were read; their writer already stored the right level.
+    private static final String UPDATE_LEVELS = "UPDATE player SET level = ?, untilNextLevel = ?, version = version + 1"
+            + " WHERE id = ? AND experience = ?";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    private PlayerIndex playerIndex;
+
+    private SlowQueryLog slowQueryLog;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private LevelCurve levelCurve;
+
+    private PlayerQueryShapes queryShapes;
+
+    private Executor queryExecutor;
+
+    @Value("${game.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public void setPlayerIndex(PlayerIndex playerIndex) {
+        this.playerIndex = playerIndex;
+    }
+
+    @Autowired
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Autowired
+    public void setQueryExecutor(@Qualifier("queryExecutor") Executor queryExecutor) {
+        this.queryExecutor = queryExecutor;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Autowired
+    public void setQueryShapes(PlayerQueryShapes queryShapes) {
+        this.queryShapes = queryShapes;
+    }
+
+    @Autowired
+    public void setLevelCurve(LevelCurve levelCurve) {
+        this.levelCurve = levelCurve;
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     @Override
     public List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
                                    Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                                    Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Player> criteriaQuery = cb.createQuery(Player.class);
-        Root<Player> root = criteriaQuery.from(Player.class);
-        criteriaQuery.select(root);
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        boolean indexed = playerIndex.isEnabled();
+        long start = System.nanoTime();
+        try {
+            if (indexed)
+                return playerIndex.getPlayers(filter, order, pageNumber, pageSize);
 
-        Predicate criteria = getPredicate(name, title, race, profession, after, before, banned, minExperience,
-                maxExperience, minLevel, maxLevel, cb, root);
+            TypedQuery<Player> query = entityManager.createQuery(
+                    queryShapes.getQuery(PlayerQueryShapes.Kind.LIST, filter, order, null), Player.class);
+            queryShapes.bind(query, filter, null);
+            return query.setFirstResult(pageSize * pageNumber)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        } finally {
+            slowQueryLog.record("list", filter, order, indexed, System.nanoTime() - start);
+        }
+    }
 
-        criteriaQuery.where(criteria);
-        criteriaQuery.orderBy(cb.asc(root.get(order.getFieldName())));
-        Query query = entityManager.createQuery(criteriaQuery)
-                .setFirstResult(pageSize * pageNumber)
-                .setMaxResults(pageSize);
-        return query.getResultList();
+    @Override
+    public List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
+                                   Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                                   Integer maxLevel, PlayerOrder order, PlayerCursor cursor, int pageSize) {
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        boolean indexed = playerIndex.isEnabled();
+        long start = System.nanoTime();
+        try {
+            if (indexed)
+                return playerIndex.getPlayers(filter, order, cursor, pageSize);
+
+            TypedQuery<Player> query = entityManager.createQuery(
+                    queryShapes.getQuery(PlayerQueryShapes.Kind.LIST, filter, order, cursor), Player.class);
+            queryShapes.bind(query, filter, cursor);
+            return query.setMaxResults(pageSize)
+                    .getResultList();
+        } finally {
+            slowQueryLog.record(cursor == null ? "list" : "seek", filter, order, indexed, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public PlayerSearchResult search(String name, String title, Race race, Profession profession, Long after,
+                                     Long before, Boolean banned, Integer minExperience, Integer maxExperience,
+                                     Integer minLevel, Integer maxLevel, PlayerOrder order, int pageNumber,
+                                     int pageSize) {
+        if (playerIndex.isEnabled())
+            return playerIndex.search(new PlayerFilter(name, title, race, profession, after, before, banned,
+                    minExperience, maxExperience, minLevel, maxLevel), order, pageNumber, pageSize);
+
+        CompletableFuture<PlayerSearchResult> facets = CompletableFuture.supplyAsync(() ->
+                readOnlyTransaction.execute(status -> getFacets(name, title, race, profession, after, before,
+                        banned, minExperience, maxExperience, minLevel, maxLevel)), queryExecutor);
+        List<Player> players = getPlayers(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel, order, pageNumber, pageSize);
+        try {
+            PlayerSearchResult result = facets.join();
+            result.setPlayers(players);
+            return result;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private PlayerSearchResult getFacets(String name, String title, Race race, Profession profession, Long after,
+                                         Long before, Boolean banned, Integer minExperience, Integer maxExperience,
+                                         Integer minLevel, Integer maxLevel) {
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                queryShapes.getQuery(PlayerQueryShapes.Kind.FACETS, filter, null, null), Object[].class);
+        queryShapes.bind(query, filter, null);
+        PlayerSearchResult result = new PlayerSearchResult();
+        for (Object[] row : query.getResultList())
+            result.add((Race) row[0], (Profession) row[1], (Boolean) row[2], ((Long) row[3]).intValue());
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachPlayer(String name, String title, Race race, Profession profession, Long after, Long before,
+                              Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                              Integer maxLevel, PlayerOrder order, Consumer<Player> consumer) {
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        TypedQuery<Player> typedQuery = entityManager.createQuery(
+                queryShapes.getQuery(PlayerQueryShapes.Kind.LIST, filter, order, null), Player.class);
+        queryShapes.bind(typedQuery, filter, null);
+        org.hibernate.query.Query<Player> query = typedQuery.unwrap(org.hibernate.query.Query.class);
+        try (ScrollableResults results = query
+                .setFetchSize(exportFetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                Player player = (Player) results.get(0);
+                entityManager.detach(player);
+                consumer.accept(player);
+            }
+        }
     }
 
     @Override
     public Integer playersCount(String name, String title, Race race, Profession profession, Long after, Long before,
                                 Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                                 Integer maxLevel) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery criteriaQuery = cb.createQuery(Player.class);
-        Root<Player> root = criteriaQuery.from(Player.class);
-        criteriaQuery.select(cb.count(root));
-
-        Predicate criteria = getPredicate(name, title, race, profession, after, before, banned, minExperience,
-                maxExperience, minLevel, maxLevel, cb, root);
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        boolean indexed = playerIndex.isEnabled();
+        long start = System.nanoTime();
+        try {
+            if (indexed)
+                return playerIndex.count(filter);
 
-        criteriaQuery.where(criteria);
-        Query query = entityManager.createQuery(criteriaQuery);
-        Long count = (Long) query.getSingleResult();
-        return count.intValue();
+            TypedQuery<Long> query = entityManager.createQuery(
+                    queryShapes.getQuery(PlayerQueryShapes.Kind.COUNT, filter, null, null), Long.class);
+            queryShapes.bind(query, filter, null);
+            return query.getSingleResult().intValue();
+        } finally {
+            slowQueryLog.record("count", filter, null, indexed, System.nanoTime() - start);
+        }
     }
 
     private Predicate getPredicate(String name, String title, Race race, Profession profession, Long after, Long before,
@@ -112,92 +291,269 @@ public class GameRepositoryImpl implements GameRepository{
 
     @Override
     public void create(Player player) {
-        player.calcLevel();
-        player.calcUntilNextLevel();
+        player.calcLevel(levelCurve);
+        player.calcUntilNextLevel(levelCurve);
+        // The column is not inserted; the table default starts every row at 0.
+        player.setVersion(0L);
         entityManager.persist(player);
+        eventPublisher.publishEvent(new PlayerChangeEvent(player.getId(), null, new Player(player)));
     }
 
     @Override
-    public boolean delete(Long id) {
-        boolean deleted = false;
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaDelete<Player> criteriaDelete = cb.createCriteriaDelete(Player.class);
-        Root<Player> root = criteriaDelete.from(Player.class);
+    public void createAll(List<Player> players) {
+        for (Player player : players) {
+            player.calcLevel(levelCurve);
+            player.calcUntilNextLevel(levelCurve);
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> insertBatch(connection, players));
+        for (Player player : players)
+            eventPublisher.publishEvent(new PlayerChangeEvent(player.getId(), null, new Player(player)));
+    }
 
-        criteriaDelete.where(cb.equal(root.get("id"), id));
-        int delEntities = entityManager.createQuery(criteriaDelete).executeUpdate();
-        if (delEntities != 0)
-            deleted = true;
-        return deleted;
+    @Override
+    public Long getImportCheckpoint(String importId) {
+        ImportCheckpoint checkpoint = entityManager.find(ImportCheckpoint.class, importId);
+        return checkpoint == null ? null : checkpoint.getRowsCommitted();
     }
 
     @Override
-    public Player getPlayer(Long id) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Player> criteriaQuery = cb.createQuery(Player.class);
-        Root<Player> root = criteriaQuery.from(Player.class);
-        criteriaQuery.select(root);
-        criteriaQuery.where(cb.equal(root.get("id"), id));
-        Query q = entityManager.createQuery(criteriaQuery);
-        try {
-            return (Player) q.getSingleResult();
-        } catch (NoResultException e) {
-            return null;
+    public void saveImportCheckpoint(String importId, long rowsCommitted) {
+        ImportCheckpoint checkpoint = entityManager.find(ImportCheckpoint.class, importId);
+        if (checkpoint == null) {
+            checkpoint = new ImportCheckpoint(importId);
+            entityManager.persist(checkpoint);
         }
+        checkpoint.setRowsCommitted(rowsCommitted);
+        checkpoint.setUpdated(new Date());
     }
 
     @Override
-    public Player update(Long id, Player player) {
-        if (getPlayer(id) == null)
-            return null;
-
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaUpdate<Player> update = cb.createCriteriaUpdate(Player.class);
-        Root<Player> root = update.from(Player.class);
+    public long getMaxId() {
+        Long maxId = entityManager.createQuery("SELECT max(p.id) FROM Player p", Long.class).getSingleResult();
+        return maxId == null ? 0 : maxId;
+    }
 
-        Player p = getPlayer(id);
+    @Override
+    public int recomputeLevels(long fromId, long toId) {
+        List<Long> changed = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> writeLevels(connection, readStaleLevels(connection, fromId, toId)));
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (Long id : changed)
+            cache.evict(Player.class, id);
+        return changed.size();
+    }
 
-        if (player.getName() != null) {
-            p.setName(player.getName());
-            update.set(root.get(Player_.name), p.getName());
+    /**
+     * Returns {@code {id, experience, level, untilNextLevel}} for every row in the range whose stored level
+     * disagrees with the current curve.
+     */
+    List<long[]> readStaleLevels(Connection connection, long fromId, long toId) throws SQLException {
+        List<long[]> stale = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(SELECT_LEVELS)) {
+            select.setLong(1, fromId);
+            select.setLong(2, toId);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    int experience = rows.getInt(2);
+                    int level = levelCurve.getLevel(experience);
+                    int untilNextLevel = levelCurve.getUntilNextLevel(experience);
+                    if (level != rows.getInt(3) || untilNextLevel != rows.getInt(4))
+                        stale.add(new long[]{rows.getLong(1), experience, level, untilNextLevel});
+                }
+            }
         }
+        return stale;
+    }
 
-        if (player.getTitle() != null) {
-            p.setTitle(player.getTitle());
-            update.set(root.get(Player_.title), p.getTitle());
+    /**
+     * Writes the levels read by {@link #readStaleLevels} and returns the ids of the rows actually updated.
+     */
+    static List<Long> writeLevels(Connection connection, List<long[]> stale) throws SQLException {
+        List<Long> changed = new ArrayList<>();
+        if (stale.isEmpty())
+            return changed;
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_LEVELS)) {
+            for (long[] row : stale) {
+                update.setInt(1, (int) row[2]);
+                update.setInt(2, (int) row[3]);
+                update.setLong(3, row[0]);
+                update.setInt(4, (int) row[1]);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO)
+                    changed.add(stale.get(i)[0]);
+            }
         }
+        return changed;
+    }
 
-        if (player.getRace() != null) {
-            p.setRace(player.getRace());
-            update.set(root.get(Player_.race), p.getRace());
+    private static void insertBatch(Connection connection, List<Player> players) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Player player : players) {
+                statement.setString(1, player.getName());
+                statement.setString(2, player.getTitle());
+                statement.setString(3, player.getRace().name());
+                statement.setString(4, player.getProfession().name());
+                statement.setDate(5, new java.sql.Date(player.getBirthday().getTime()));
+                statement.setBoolean(6, Boolean.TRUE.equals(player.getBanned()));
+                statement.setInt(7, player.getExperience());
+                statement.setInt(8, player.getLevel());
+                statement.setInt(9, player.getUntilNextLevel());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (Player player : players) {
+                    if (!keys.next())
+                        throw new SQLException("Fewer generated keys than inserted players");
+                    player.setId(keys.getLong(1));
+                    player.setVersion(0L);
+                }
+            }
         }
+    }
 
-        if (player.getProfession() != null) {
-            p.setProfession(player.getProfession());
-            update.set(root.get(Player_.profession), p.getProfession());
+    @Override
+    public boolean delete(Long id) {
+        Player player = entityManager.find(Player.class, id);
+        if (player == null)
+            return false;
+        Player before = new Player(player);
+        entityManager.remove(player);
+        eventPublisher.publishEvent(new PlayerChangeEvent(id, before, null));
+        return true;
+    }
+
+    @Override
+    public Player getPlayer(Long id) {
+        return entityManager.find(Player.class, id);
+    }
+
+    @Override
+    public Long getVersion(Long id) {
+        if (playerIndex.isEnabled())
+            return playerIndex.getVersion(id);
+        List<Long> versions = entityManager.createQuery("select p.version from Player p where p.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    @Override
+    public List<Player> getPlayersById(long[] ids) {
+        if (ids.length == 0)
+            return Collections.emptyList();
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids)
+            idList.add(id);
+        Map<Long, Player> players = new HashMap<>();
+        for (Player player : entityManager.createQuery("select p from Player p where p.id in :ids", Player.class)
+                .setParameter("ids", idList)
+                .getResultList())
+            players.put(player.getId(), player);
+        List<Player> ordered = new ArrayList<>(ids.length);
+        for (long id : ids)
+            ordered.add(players.get(id));
+        return ordered;
+    }
+
+    @Override
+    public int patch(String name, String title, Race race, Profession profession, Long after, Long before,
+                     Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                     Integer maxLevel, PlayerPatch patch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Player> update = cb.createCriteriaUpdate(Player.class);
+        Root<Player> root = update.from(Player.class);
+
+        if (patch.getAddExperience() != null) {
+            // MySQL evaluates SET assignments left to right against already updated columns, so level and
+            // untilNextLevel are derived from the patched experience expression and assigned before it.
+            Expression<Integer> experience = getPatchedExperience(patch.getAddExperience(), cb, root);
+            update.set(root.get(Player_.level), getLevelExpression(experience, cb));
+            update.set(root.get(Player_.untilNextLevel), getUntilNextLevelExpression(experience, cb));
+            update.set(root.get(Player_.experience), experience);
         }
+        if (patch.getBanned() != null)
+            update.set(root.get(Player_.banned), patch.getBanned());
+        if (patch.getTitle() != null)
+            update.set(root.get(Player_.title), patch.getTitle());
+        // Bulk updates bypass @Version, so the row version is bumped explicitly.
+        update.set(root.get(Player_.version), cb.sum(root.get(Player_.version), 1L));
 
-        if (player.getBirthday() != null) {
-            p.setBirthday(player.getBirthday());
-            update.set(root.get(Player_.birthday), p.getBirthday());
+        update.where(getPredicate(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel, cb, root));
+        int updated = entityManager.createQuery(update).executeUpdate();
+        eventPublisher.publishEvent(new PlayerPatchEvent(new PlayerFilter(name, title, race, profession, after,
+                before, banned, minExperience, maxExperience, minLevel, maxLevel), patch, updated));
+        return updated;
+    }
+
+    private Expression<Integer> getLevelExpression(Expression<Integer> experience, CriteriaBuilder cb) {
+        if (levelCurve.isQuadratic()) {
+            double base = levelCurve.getQuadraticBase();
+            return cb.function("floor", Integer.class, cb.quot(cb.diff(cb.sqrt(
+                    cb.sum(cb.prod(experience, 4 * base), base * base)), base), 2 * base));
         }
+        CriteriaBuilder.Case<Integer> levels = cb.selectCase();
+        for (int i = levelCurve.getMaxLevel(); i > 0; i--)
+            levels = levels.when(cb.ge(experience, levelCurve.getThreshold(i)), i);
+        return levels.otherwise(0);
+    }
 
-        if (player.getBanned() != null) {
-            p.setBanned(player.getBanned());
-            update.set(root.get(Player_.banned), p.getBanned());
+    private Expression<Integer> getUntilNextLevelExpression(Expression<Integer> experience, CriteriaBuilder cb) {
+        if (levelCurve.isQuadratic()) {
+            Expression<Integer> level = getLevelExpression(experience, cb);
+            return cb.diff(cb.prod(cb.prod(cb.sum(level, 1), cb.sum(level, 2)), levelCurve.getQuadraticBase()),
+                    experience);
         }
+        CriteriaBuilder.Case<Integer> untilNextLevel = cb.<Integer>selectCase()
+                .when(cb.ge(experience, levelCurve.getThreshold(levelCurve.getMaxLevel())), 0);
+        for (int i = levelCurve.getMaxLevel() - 1; i >= 0; i--)
+            untilNextLevel = untilNextLevel.when(cb.ge(experience, levelCurve.getThreshold(i)),
+                    cb.diff(levelCurve.getThreshold(i + 1), experience));
+        return untilNextLevel.otherwise(0);
+    }
+
+    private Expression<Integer> getPatchedExperience(int delta, CriteriaBuilder cb, Root<Player> root) {
+        Expression<Integer> sum = cb.sum(root.get(Player_.experience), delta);
+        return cb.<Integer>selectCase()
+                .when(cb.gt(sum, Player.MAX_EXPERIENCE), Player.MAX_EXPERIENCE)
+                .when(cb.lt(sum, 0), 0)
+                .otherwise(sum);
+    }
+
+    @Override
+    public Player update(Long id, Player player) {
+        Player p = getPlayer(id);
+        if (p == null)
+            return null;
+        Player before = new Player(p);
 
+        if (player.getName() != null)
+            p.setName(player.getName());
+        if (player.getTitle() != null)
+            p.setTitle(player.getTitle());
+        if (player.getRace() != null)
+            p.setRace(player.getRace());
+        if (player.getProfession() != null)
+            p.setProfession(player.getProfession());
+        if (player.getBirthday() != null)
+            p.setBirthday(player.getBirthday());
+        if (player.getBanned() != null)
+            p.setBanned(player.getBanned());
         if (player.getExperience() != null) {
             p.setExperience(player.getExperience());
-            p.calcLevel();
-            p.calcUntilNextLevel();
-            update.set(root.get(Player_.experience), p.getExperience());
-            update.set(root.get(Player_.level), p.getLevel());
-            update.set(root.get(Player_.untilNextLevel), p.getUntilNextLevel());
+            p.calcLevel(levelCurve);
+            p.calcUntilNextLevel(levelCurve);
         }
 
-        update.where(cb.equal(root.get("id"), id));
-        entityManager.createQuery(update).executeUpdate();
+        if (!entityManager.unwrap(Session.class).isDirty())
+            return p;
+        p.setVersion(p.getVersion() + 1);
+        entityManager.flush();
+        eventPublisher.publishEvent(new PlayerChangeEvent(id, before, new Player(p)));
         return p;
     }
 }
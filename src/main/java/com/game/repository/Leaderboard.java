@@ -0,0 +1,199 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class Leaderboard {
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int PROFESSIONS = Profession.values().length + 1;
+    private static final int PARTITIONS = (Race.values().length + 1) * PROFESSIONS;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${game.leaderboard.enabled:true}")
+    private boolean enabled;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile boolean loaded;
+    private Map<Long, Entry> entries;
+    private RankTree[] trees;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size(Race race, Profession profession) {
+        lockForRead();
+        try {
+            return trees[partition(race, profession)].size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the 1-based rank of the player within the partition, or 0 when the player is not in it.
+     */
+    public int rank(Long id, Race race, Profession profession) {
+        lockForRead();
+        try {
+            Entry entry = entries.get(id);
+            return entry == null ? 0 : trees[partition(race, profession)].rank(id, entry.experience);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the players ranked from {@code fromRank} (1-based) on, at most {@code count} of them.
+     */
+    public long[] range(Race race, Profession profession, int fromRank, int count) {
+        lockForRead();
+        try {
+            RankTree tree = trees[partition(race, profession)];
+            int from = Math.max(fromRank, 1) - 1;
+            int to = (int) Math.min((long) from + count, tree.size());
+            long[] ids = new long[Math.max(to - from, 0)];
+            for (int i = 0; i < ids.length; i++)
+                ids[i] = tree.select(from + i);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChange(PlayerChangeEvent event) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (!loaded)
+                return;
+            remove(event.getId());
+            if (!event.isDelete())
+                add(event.getAfter());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerPatch(PlayerPatchEvent event) {
+        // Only experience moves a player on the board. A level recompute publishes this event with a null patch;
+        // it rewrites level columns only, so the board stays valid.
+        if (enabled && event.getUpdated() > 0 && event.getPatch() != null && event.getPatch().getAddExperience() != null)
+            loaded = false;
+    }
+
+    private void lockForRead() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded)
+                    load();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+    }
+
+    private void load() {
+        entries = new HashMap<>();
+        trees = new RankTree[PARTITIONS];
+        for (int i = 0; i < PARTITIONS; i++)
+            trees[i] = new RankTree();
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            long lastId = Long.MIN_VALUE;
+            List<Object[]> chunk;
+            do {
+                chunk = em.createQuery("select p.id, p.experience, p.race, p.profession from Player p"
+                        + " where p.id > :id order by p.id", Object[].class)
+                        .setParameter("id", lastId)
+                        .setMaxResults(LOAD_CHUNK)
+                        .getResultList();
+                for (Object[] row : chunk) {
+                    lastId = (Long) row[0];
+                    add(lastId, (Integer) row[1], (Race) row[2], (Profession) row[3]);
+                }
+            } while (chunk.size() == LOAD_CHUNK);
+        } finally {
+            em.close();
+        }
+        loaded = true;
+    }
+
+    private void add(Player player) {
+        add(player.getId(), player.getExperience(), player.getRace(), player.getProfession());
+    }
+
+    private void add(long id, Integer experience, Race race, Profession profession) {
+        if (experience == null)
+            return;
+        Entry entry = new Entry(experience, race, profession);
+        entries.put(id, entry);
+        for (int partition : entry.partitions())
+            trees[partition].insert(id, experience);
+    }
+
+    private void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null)
+            return;
+        for (int partition : entry.partitions())
+            trees[partition].remove(id, entry.experience);
+    }
+
+    private static int partition(Race race, Profession profession) {
+        return (race == null ? 0 : race.ordinal() + 1) * PROFESSIONS + (profession == null ? 0 : profession.ordinal() + 1);
+    }
+
+    private static final class Entry {
+        private final int experience;
+        private final Race race;
+        private final Profession profession;
+
+        Entry(int experience, Race race, Profession profession) {
+            this.experience = experience;
+            this.race = race;
+            this.profession = profession;
+        }
+
+        int[] partitions() {
+            if (race == null && profession == null)
+                return new int[]{partition(null, null)};
+            if (race == null)
+                return new int[]{partition(null, null), partition(null, profession)};
+            if (profession == null)
+                return new int[]{partition(null, null), partition(race, null)};
+            return new int[]{partition(null, null), partition(race, null), partition(null, profession),
+                    partition(race, profession)};
+        }
+    }
+}
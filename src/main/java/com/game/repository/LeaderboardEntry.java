@@ -0,0 +1,21 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+
+public class LeaderboardEntry {
+    private final int rank;
+    private final Player player;
+
+    public LeaderboardEntry(int rank, Player player) {
+        this.rank = rank;
+        this.player = player;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+}
@@ -0,0 +1,31 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+
+public class PlayerChangeEvent {
+    private final Long id;
+    private final Player before;
+    private final Player after;
+
+    public PlayerChangeEvent(Long id, Player before, Player after) {
+        this.id = id;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Player getBefore() {
+        return before;
+    }
+
+    public Player getAfter() {
+        return after;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+public final class PlayerFilter {
+    private final String name;
+    private final String title;
+    private final Race race;
+    private final Profession profession;
+    private final Long after;
+    private final Long before;
+    private final Boolean banned;
+    private final Integer minExperience;
+    private final Integer maxExperience;
+    private final Integer minLevel;
+    private final Integer maxLevel;
+
+    public PlayerFilter(String name, String title, Race race, Profession profession, Long after, Long before,
+                        Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                        Integer maxLevel) {
+        this.name = name;
+        this.title = title;
+        this.race = race;
+        this.profession = profession;
+        this.after = after;
+        this.before = before;
+        this.banned = banned;
+        this.minExperience = minExperience;
+        this.maxExperience = maxExperience;
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public Long getBefore() {
+        return before;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public Integer getMinExperience() {
+        return minExperience;
+    }
+
+    public Integer getMaxExperience() {
+        return maxExperience;
+    }
+
+    public Integer getMinLevel() {
+        return minLevel;
+    }
+
+    public Integer getMaxLevel() {
+        return maxLevel;
+    }
+
+    public static long toEpochDay(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    public static long fromEpochDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * {@code LIKE '%part%'} under a case-insensitive collation, as MySQL's utf8_general_ci evaluates it; a null
+     * part matches anything.
+     */
+    public static boolean containsIgnoreCase(String value, String part) {
+        if (part == null)
+            return true;
+        if (value == null)
+            return false;
+        for (int i = 0; i + part.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, part, 0, part.length()))
+                return true;
+        }
+        return false;
+    }
+
+    public boolean matches(Player player) {
+        if (!containsIgnoreCase(player.getName(), name) || !containsIgnoreCase(player.getTitle(), title))
+            return false;
+        if (race != null && race != player.getRace())
+            return false;
+        if (profession != null && profession != player.getProfession())
+            return false;
+        if (after != null || before != null) {
+            if (player.getBirthday() == null)
+                return false;
+            long birthday = toEpochDay(player.getBirthday().getTime());
+            if (after != null && birthday < toEpochDay(after))
+                return false;
+            if (before != null && birthday > toEpochDay(before))
+                return false;
+        }
+        if (banned != null && !banned.equals(player.getBanned()))
+            return false;
+        if (minExperience != null && (player.getExperience() == null || player.getExperience() < minExperience))
+            return false;
+        if (maxExperience != null && (player.getExperience() == null || player.getExperience() > maxExperience))
+            return false;
+        if (minLevel != null && (player.getLevel() == null || player.getLevel() < minLevel))
+            return false;
+        return maxLevel == null || (player.getLevel() != null && player.getLevel() <= maxLevel);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PlayerFilter that = (PlayerFilter) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(title, that.title) &&
+                race == that.race &&
+                profession == that.profession &&
+                Objects.equals(after, that.after) &&
+                Objects.equals(before, that.before) &&
+                Objects.equals(banned, that.banned) &&
+                Objects.equals(minExperience, that.minExperience) &&
+                Objects.equals(maxExperience, that.maxExperience) &&
+                Objects.equals(minLevel, that.minLevel) &&
+                Objects.equals(maxLevel, that.maxLevel);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, title, race, profession, after, before, banned, minExperience, maxExperience,
+                minLevel, maxLevel);
+    }
+}
@@ -0,0 +1,592 @@
+package com.game.repository;
+
+import com.game.controller.PlayerCursor;
+import com.game.controller.PlayerOrder;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class PlayerIndex {
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int COMPACT_THRESHOLD = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte NO_ENUM = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${game.index.enabled:false}")
+    private boolean enabled;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile boolean loaded;
+    private int size;
+    private int liveCount;
+    private int dead;
+    private long[] ids;
+    private String[] names;
+    private String[] titles;
+    private byte[] races;
+    private byte[] professions;
+    private int[] experiences;
+    private int[] levels;
+    private int[] untilNextLevels;
+    private int[] birthdays;
+    private long[] versions;
+    private BitSet live;
+    private BitSet banned;
+    private BitSet[] raceBitmaps;
+    private BitSet[] professionBitmaps;
+    private TrigramIndex nameTrigrams;
+    private TrigramIndex titleTrigrams;
+    private Map<Long, Integer> slots;
+    private SortedKeys byExperience;
+    private SortedKeys byLevel;
+    private SortedKeys byBirthday;
+    private int[] byName;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Player> getPlayers(PlayerFilter filter, PlayerOrder order, int pageNumber, int pageSize) {
+        return page(filter, order, null, (long) pageNumber * pageSize, pageSize);
+    }
+
+    public List<Player> getPlayers(PlayerFilter filter, PlayerOrder order, PlayerCursor cursor, int pageSize) {
+        return page(filter, order, cursor, 0, pageSize);
+    }
+
+    public PlayerSearchResult search(PlayerFilter filter, PlayerOrder order, int pageNumber, int pageSize) {
+        lockForRead();
+        try {
+            BitSet matches = select(filter);
+            PlayerSearchResult result = new PlayerSearchResult();
+            int[][][] counts = new int[Race.values().length + 1][Profession.values().length + 1][2];
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1))
+                counts[races[slot] + 1][professions[slot] + 1][banned.get(slot) ? 1 : 0]++;
+            for (int race = 0; race < counts.length; race++) {
+                for (int profession = 0; profession < counts[race].length; profession++) {
+                    for (int flag = 0; flag < 2; flag++) {
+                        if (counts[race][profession][flag] != 0)
+                            result.add(race == 0 ? null : Race.values()[race - 1],
+                                    profession == 0 ? null : Profession.values()[profession - 1],
+                                    flag == 1, counts[race][profession][flag]);
+                    }
+                }
+            }
+            result.setPlayers(collect(matches, order, 0, (long) pageNumber * pageSize, pageSize));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(PlayerFilter filter) {
+        lockForRead();
+        try {
+            return select(filter).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Long getVersion(long id) {
+        lockForRead();
+        try {
+            Integer slot = slots.get(id);
+            return slot == null ? null : versions[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChange(PlayerChangeEvent event) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (!loaded)
+                return;
+            if (event.isDelete())
+                remove(event.getId());
+            else
+                upsert(event.getAfter());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerPatch(PlayerPatchEvent event) {
+        if (!enabled || event.getUpdated() == 0)
+            return;
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void lockForRead() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded)
+                    load();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+    }
+
+    private List<Player> page(PlayerFilter filter, PlayerOrder order, PlayerCursor cursor, long skip, int pageSize) {
+        lockForRead();
+        try {
+            BitSet matches = select(filter);
+            return collect(matches, order, cursor == null ? 0 : seek(order, cursor), skip, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Player> collect(BitSet matches, PlayerOrder order, int from, long skip, int pageSize) {
+        List<Player> page = new ArrayList<>(Math.max(0, Math.min(pageSize, matches.cardinality())));
+        if (order == PlayerOrder.ID) {
+            for (int slot = matches.nextSetBit(from); slot >= 0 && page.size() < pageSize;
+                 slot = matches.nextSetBit(slot + 1)) {
+                if (skip-- <= 0)
+                    page.add(toPlayer(slot));
+            }
+        } else if (order == PlayerOrder.NAME) {
+            for (int i = from; i < liveCount && page.size() < pageSize; i++) {
+                if (matches.get(byName[i]) && skip-- <= 0)
+                    page.add(toPlayer(byName[i]));
+            }
+        } else {
+            SortedKeys keys = sortedKeys(order);
+            for (int i = from; i < keys.size && page.size() < pageSize; i++) {
+                int slot = SortedKeys.slot(keys.keys[i]);
+                if (matches.get(slot) && skip-- <= 0)
+                    page.add(toPlayer(slot));
+            }
+        }
+        return page;
+    }
+
+    private int seek(PlayerOrder order, PlayerCursor cursor) {
+        int position = Arrays.binarySearch(ids, 0, size, cursor.getId());
+        int slot = position >= 0 ? position + 1 : -position - 1;
+        Object value = cursor.getValue();
+        switch (order) {
+            case ID:
+                return slot;
+            case NAME:
+                return searchByName((String) value, slot, liveCount);
+            case BIRTHDAY:
+                int birthday = value == null ? NO_DATE : epochDay(((Date) value).getTime());
+                return byBirthday.lowerBound(SortedKeys.key(birthday, slot));
+            default:
+                int number = value == null ? 0 : (Integer) value;
+                return sortedKeys(order).lowerBound(SortedKeys.key(number, slot));
+        }
+    }
+
+    private BitSet select(PlayerFilter filter) {
+        BitSet result = (BitSet) live.clone();
+        narrow(result, nameTrigrams, filter.getName());
+        narrow(result, titleTrigrams, filter.getTitle());
+        if (filter.getRace() != null)
+            result.and(raceBitmaps[filter.getRace().ordinal()]);
+        if (filter.getProfession() != null)
+            result.and(professionBitmaps[filter.getProfession().ordinal()]);
+        if (filter.getBanned() != null) {
+            if (filter.getBanned())
+                result.and(banned);
+            else
+                result.andNot(banned);
+        }
+        if (filter.getMinExperience() != null || filter.getMaxExperience() != null)
+            result.and(byExperience.range(bound(filter.getMinExperience(), Integer.MIN_VALUE),
+                    bound(filter.getMaxExperience(), Integer.MAX_VALUE)));
+        if (filter.getMinLevel() != null || filter.getMaxLevel() != null)
+            result.and(byLevel.range(bound(filter.getMinLevel(), Integer.MIN_VALUE),
+                    bound(filter.getMaxLevel(), Integer.MAX_VALUE)));
+        if (filter.getAfter() != null || filter.getBefore() != null) {
+            int from = filter.getAfter() == null ? NO_DATE + 1 : epochDay(filter.getAfter());
+            int to = filter.getBefore() == null ? Integer.MAX_VALUE : epochDay(filter.getBefore());
+            result.and(byBirthday.range(Math.max(from, NO_DATE + 1), to));
+        }
+        if (filter.getName() != null || filter.getTitle() != null) {
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                if (!PlayerFilter.containsIgnoreCase(names[slot], filter.getName())
+                        || !PlayerFilter.containsIgnoreCase(titles[slot], filter.getTitle()))
+                    result.clear(slot);
+            }
+        }
+        return result;
+    }
+
+    private static void narrow(BitSet result, TrigramIndex trigrams, String part) {
+        BitSet candidates = trigrams.candidates(part);
+        if (candidates != null)
+            result.and(candidates);
+    }
+
+    private static int bound(Integer value, int unbounded) {
+        return value == null ? unbounded : value;
+    }
+
+    private static int epochDay(long millis) {
+        long day = PlayerFilter.toEpochDay(millis);
+        return (int) Math.max(NO_DATE + 1, Math.min(Integer.MAX_VALUE, day));
+    }
+
+    private SortedKeys sortedKeys(PlayerOrder order) {
+        switch (order) {
+            case EXPERIENCE:
+                return byExperience;
+            case LEVEL:
+                return byLevel;
+            case BIRTHDAY:
+                return byBirthday;
+            default:
+                throw new IllegalArgumentException("No sorted column for " + order);
+        }
+    }
+
+    private void load() {
+        clear(LOAD_CHUNK);
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            long lastId = Long.MIN_VALUE;
+            List<Player> chunk;
+            do {
+                chunk = em.createQuery("select p from Player p where p.id > :id order by p.id", Player.class)
+                        .setParameter("id", lastId)
+                        .setMaxResults(LOAD_CHUNK)
+                        .setHint("javax.persistence.cache.storeMode", CacheStoreMode.BYPASS)
+                        .getResultList();
+                for (Player player : chunk) {
+                    append(player);
+                    lastId = player.getId();
+                }
+                em.clear();
+            } while (chunk.size() == LOAD_CHUNK);
+        } finally {
+            em.close();
+        }
+        sort();
+        loaded = true;
+    }
+
+    private void compact() {
+        List<Player> players = new ArrayList<>(slots.size());
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1))
+            players.add(toPlayer(slot));
+        clear(players.size());
+        for (Player player : players)
+            append(player);
+        sort();
+    }
+
+    private void clear(int capacity) {
+        int length = Math.max(16, capacity);
+        size = 0;
+        liveCount = 0;
+        dead = 0;
+        ids = new long[length];
+        names = new String[length];
+        titles = new String[length];
+        races = new byte[length];
+        professions = new byte[length];
+        experiences = new int[length];
+        levels = new int[length];
+        untilNextLevels = new int[length];
+        birthdays = new int[length];
+        versions = new long[length];
+        live = new BitSet(length);
+        banned = new BitSet(length);
+        raceBitmaps = new BitSet[Race.values().length];
+        for (int i = 0; i < raceBitmaps.length; i++)
+            raceBitmaps[i] = new BitSet(length);
+        professionBitmaps = new BitSet[Profession.values().length];
+        for (int i = 0; i < professionBitmaps.length; i++)
+            professionBitmaps[i] = new BitSet(length);
+        nameTrigrams = new TrigramIndex();
+        titleTrigrams = new TrigramIndex();
+        slots = new HashMap<>();
+        byExperience = new SortedKeys(length);
+        byLevel = new SortedKeys(length);
+        byBirthday = new SortedKeys(length);
+        byName = new int[length];
+    }
+
+    private void append(Player player) {
+        if (size == ids.length)
+            grow();
+        int slot = size++;
+        ids[slot] = player.getId();
+        slots.put(player.getId(), slot);
+        write(slot, player);
+        live.set(slot);
+        liveCount++;
+        setBitmaps(slot);
+    }
+
+    private void sort() {
+        int count = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            byExperience.keys[count] = SortedKeys.key(experiences[slot], slot);
+            byLevel.keys[count] = SortedKeys.key(levels[slot], slot);
+            byBirthday.keys[count] = SortedKeys.key(birthdays[slot], slot);
+            count++;
+        }
+        byExperience.sort(count);
+        byLevel.sort(count);
+        byBirthday.sort(count);
+        Integer[] order = new Integer[count];
+        int i = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1))
+            order[i++] = slot;
+        Arrays.sort(order, this::compareByName);
+        for (i = 0; i < count; i++)
+            byName[i] = order[i];
+    }
+
+    private void upsert(Player player) {
+        Integer slot = slots.get(player.getId());
+        if (slot == null) {
+            if (size > 0 && player.getId() < ids[size - 1]) {
+                loaded = false;
+                return;
+            }
+            append(player);
+            addSorted(size - 1);
+            return;
+        }
+        // The column is written as greatest(version + 1, ?); the entity may have been read before a bulk write.
+        long version = Math.max(versions[slot] + 1, player.getVersion() == null ? 0 : player.getVersion());
+        removeSorted(slot);
+        clearBitmaps(slot);
+        write(slot, player);
+        versions[slot] = version;
+        setBitmaps(slot);
+        addSorted(slot);
+    }
+
+    private void remove(Long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null)
+            return;
+        removeSorted(slot);
+        clearBitmaps(slot);
+        live.clear(slot);
+        liveCount--;
+        if (++dead > COMPACT_THRESHOLD && dead > size / 2)
+            compact();
+    }
+
+    private void write(int slot, Player player) {
+        names[slot] = player.getName();
+        titles[slot] = player.getTitle();
+        races[slot] = player.getRace() == null ? NO_ENUM : (byte) player.getRace().ordinal();
+        professions[slot] = player.getProfession() == null ? NO_ENUM : (byte) player.getProfession().ordinal();
+        experiences[slot] = player.getExperience() == null ? 0 : player.getExperience();
+        levels[slot] = player.getLevel() == null ? 0 : player.getLevel();
+        untilNextLevels[slot] = player.getUntilNextLevel() == null ? 0 : player.getUntilNextLevel();
+        birthdays[slot] = player.getBirthday() == null ? NO_DATE : epochDay(player.getBirthday().getTime());
+        banned.set(slot, Boolean.TRUE.equals(player.getBanned()));
+        versions[slot] = player.getVersion() == null ? 0 : player.getVersion();
+    }
+
+    private void setBitmaps(int slot) {
+        if (races[slot] != NO_ENUM)
+            raceBitmaps[races[slot]].set(slot);
+        if (professions[slot] != NO_ENUM)
+            professionBitmaps[professions[slot]].set(slot);
+        nameTrigrams.add(slot, names[slot]);
+        titleTrigrams.add(slot, titles[slot]);
+    }
+
+    private void clearBitmaps(int slot) {
+        if (races[slot] != NO_ENUM)
+            raceBitmaps[races[slot]].clear(slot);
+        if (professions[slot] != NO_ENUM)
+            professionBitmaps[professions[slot]].clear(slot);
+        nameTrigrams.remove(slot, names[slot]);
+        titleTrigrams.remove(slot, titles[slot]);
+    }
+
+    private void addSorted(int slot) {
+        byExperience.add(SortedKeys.key(experiences[slot], slot));
+        byLevel.add(SortedKeys.key(levels[slot], slot));
+        byBirthday.add(SortedKeys.key(birthdays[slot], slot));
+        int count = liveCount - 1;
+        int position = searchByName(names[slot], slot, count);
+        if (count == byName.length)
+            byName = Arrays.copyOf(byName, byName.length * 2);
+        System.arraycopy(byName, position, byName, position + 1, count - position);
+        byName[position] = slot;
+    }
+
+    private void removeSorted(int slot) {
+        byExperience.remove(SortedKeys.key(experiences[slot], slot));
+        byLevel.remove(SortedKeys.key(levels[slot], slot));
+        byBirthday.remove(SortedKeys.key(birthdays[slot], slot));
+        int count = liveCount;
+        int position = searchByName(names[slot], slot, count);
+        System.arraycopy(byName, position + 1, byName, position, count - position - 1);
+    }
+
+    private int searchByName(String name, int slot, int count) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareByName(names[byName[mid]], byName[mid], name, slot);
+            if (cmp < 0)
+                low = mid + 1;
+            else if (cmp > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return low;
+    }
+
+    private int compareByName(int a, int b) {
+        return compareByName(names[a], a, names[b], b);
+    }
+
+    private static int compareByName(String nameA, int a, String nameB, int b) {
+        if (nameA != nameB) {
+            if (nameA == null)
+                return -1;
+            if (nameB == null)
+                return 1;
+            // Same order as ORDER BY name under the database's case-insensitive collation.
+            int cmp = String.CASE_INSENSITIVE_ORDER.compare(nameA, nameB);
+            if (cmp != 0)
+                return cmp;
+        }
+        return Integer.compare(a, b);
+    }
+
+    private void grow() {
+        int length = ids.length * 2;
+        ids = Arrays.copyOf(ids, length);
+        names = Arrays.copyOf(names, length);
+        titles = Arrays.copyOf(titles, length);
+        races = Arrays.copyOf(races, length);
+        professions = Arrays.copyOf(professions, length);
+        experiences = Arrays.copyOf(experiences, length);
+        levels = Arrays.copyOf(levels, length);
+        untilNextLevels = Arrays.copyOf(untilNextLevels, length);
+        birthdays = Arrays.copyOf(birthdays, length);
+        versions = Arrays.copyOf(versions, length);
+        byName = Arrays.copyOf(byName, length);
+    }
+
+    private Player toPlayer(int slot) {
+        Player player = new Player();
+        player.setId(ids[slot]);
+        player.setName(names[slot]);
+        player.setTitle(titles[slot]);
+        player.setRace(races[slot] == NO_ENUM ? null : Race.values()[races[slot]]);
+        player.setProfession(professions[slot] == NO_ENUM ? null : Profession.values()[professions[slot]]);
+        player.setExperience(experiences[slot]);
+        player.setLevel(levels[slot]);
+        player.setUntilNextLevel(untilNextLevels[slot]);
+        player.setBirthday(birthdays[slot] == NO_DATE ? null : new Date(PlayerFilter.fromEpochDay(birthdays[slot])));
+        player.setBanned(banned.get(slot));
+        player.setVersion(versions[slot]);
+        return player;
+    }
+
+    private static final class SortedKeys {
+        private long[] keys;
+        private int size;
+
+        SortedKeys(int capacity) {
+            keys = new long[capacity];
+        }
+
+        static long key(int value, int slot) {
+            return ((long) value << 32) | (slot & 0xffffffffL);
+        }
+
+        static int slot(long key) {
+            return (int) key;
+        }
+
+        void sort(int count) {
+            size = count;
+            Arrays.sort(keys, 0, size);
+        }
+
+        void add(long key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            if (position >= 0)
+                return;
+            position = -position - 1;
+            if (size == keys.length)
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            keys[position] = key;
+            size++;
+        }
+
+        void remove(long key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            if (position < 0)
+                return;
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            size--;
+        }
+
+        BitSet range(int from, int to) {
+            BitSet result = new BitSet();
+            if (from > to)
+                return result;
+            for (int i = lowerBound(key(from, 0)); i < size && (int) (keys[i] >> 32) <= to; i++)
+                result.set(slot(keys[i]));
+            return result;
+        }
+
+        int lowerBound(long key) {
+            int position = Arrays.binarySearch(keys, 0, size, key);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.game.repository;
+
+public class PlayerPatch {
+    private Boolean banned;
+    private Integer addExperience;
+    private String title;
+
+    public PlayerPatch() {
+    }
+
+    public PlayerPatch(Boolean banned, Integer addExperience, String title) {
+        this.banned = banned;
+        this.addExperience = addExperience;
+        this.title = title;
+    }
+
+    public Boolean getBanned() {
+        return banned;
+    }
+
+    public Integer getAddExperience() {
+        return addExperience;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public boolean isEmpty() {
+        return banned == null && addExperience == null && title == null;
+    }
+}
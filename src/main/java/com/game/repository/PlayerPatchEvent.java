@@ -0,0 +1,25 @@
+package com.game.repository;
+
+public class PlayerPatchEvent {
+    private final PlayerFilter filter;
+    private final PlayerPatch patch;
+    private final int updated;
+
+    public PlayerPatchEvent(PlayerFilter filter, PlayerPatch patch, int updated) {
+        this.filter = filter;
+        this.patch = patch;
+        this.updated = updated;
+    }
+
+    public PlayerFilter getFilter() {
+        return filter;
+    }
+
+    public PlayerPatch getPatch() {
+        return patch;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+}
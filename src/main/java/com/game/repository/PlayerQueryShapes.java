@@ -0,0 +1,309 @@
+package com.game.repository;
+
+import com.game.controller.PlayerCursor;
+import com.game.controller.PlayerOrder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles a player filter to parameterized JPQL once per shape, i.e. per set of non-null filter fields, order
+ * and query kind, so that Hibernate's plan cache and the driver's statement cache see one statement per shape
+ * instead of one per set of values. Each new shape is also checked against the indexes of the player table, and
+ * shapes no index can serve are logged and listed in {@link #getStats()}.
+ */
+@Component
+public class PlayerQueryShapes {
+    public enum Kind {
+        LIST("select p from Player p"),
+        COUNT("select count(p) from Player p"),
+        FACETS("select p.race, p.profession, p.banned, count(p) from Player p");
+
+        private final String select;
+
+        Kind(String select) {
+            this.select = select;
+        }
+    }
+
+    private static final int NAME = 1;
+    private static final int TITLE = 1 << 1;
+    private static final int RACE = 1 << 2;
+    private static final int PROFESSION = 1 << 3;
+    private static final int AFTER = 1 << 4;
+    private static final int BEFORE = 1 << 5;
+    private static final int BANNED = 1 << 6;
+    private static final int MIN_EXPERIENCE = 1 << 7;
+    private static final int MAX_EXPERIENCE = 1 << 8;
+    private static final int MIN_LEVEL = 1 << 9;
+    private static final int MAX_LEVEL = 1 << 10;
+    private static final int FIELDS = 11;
+
+    private static final int NO_SEEK = 0;
+    private static final int SEEK_ID = 1;
+    private static final int SEEK_VALUE = 2;
+    private static final int SEEK_NULL = 3;
+
+    // Column behind each filter bit; null where the filter is a LIKE with a leading wildcard and no B-tree index
+    // can serve it.
+    private static final String[] COLUMNS = {
+            null, null, "race", "profession", "birthday", "birthday", "banned", "experience", "experience", "level",
+            "level"
+    };
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerQueryShapes.class);
+
+    private final Map<Integer, Shape> shapes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private DataSource dataSource;
+
+    private volatile Set<String> indexedColumns;
+
+    @Autowired
+    public void setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public String getQuery(Kind kind, PlayerFilter filter, PlayerOrder order, PlayerCursor cursor) {
+        int mask = mask(filter);
+        int seek = seek(cursor);
+        int key = ((((kind.ordinal() << 3) | (order == null ? 7 : order.ordinal())) << 2 | seek) << FIELDS) | mask;
+        Shape shape = shapes.get(key);
+        if (shape != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            shape = shapes.computeIfAbsent(key, k -> {
+                String jpql = compile(kind, mask, order, seek);
+                boolean indexed = isIndexed(mask, order);
+                if (!indexed)
+                    log.warn("Query shape has no index support: {}", jpql);
+                return new Shape(jpql, indexed);
+            });
+        }
+        shape.executions.incrementAndGet();
+        return shape.jpql;
+    }
+
+    public void bind(Query query, PlayerFilter filter, PlayerCursor cursor) {
+        if (filter.getName() != null)
+            query.setParameter("name", "%" + filter.getName() + "%");
+        if (filter.getTitle() != null)
+            query.setParameter("title", "%" + filter.getTitle() + "%");
+        if (filter.getRace() != null)
+            query.setParameter("race", filter.getRace());
+        if (filter.getProfession() != null)
+            query.setParameter("profession", filter.getProfession());
+        if (filter.getAfter() != null)
+            query.setParameter("after", new Date(filter.getAfter()));
+        if (filter.getBefore() != null)
+            query.setParameter("before", new Date(filter.getBefore()));
+        if (filter.getBanned() != null)
+            query.setParameter("banned", filter.getBanned());
+        if (filter.getMinExperience() != null)
+            query.setParameter("minExperience", filter.getMinExperience());
+        if (filter.getMaxExperience() != null)
+            query.setParameter("maxExperience", filter.getMaxExperience());
+        if (filter.getMinLevel() != null)
+            query.setParameter("minLevel", filter.getMinLevel());
+        if (filter.getMaxLevel() != null)
+            query.setParameter("maxLevel", filter.getMaxLevel());
+        if (cursor != null) {
+            query.setParameter("cursorId", cursor.getId());
+            if (seek(cursor) == SEEK_VALUE)
+                query.setParameter("cursorValue", cursor.getValue());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = this.hits.get();
+        long misses = this.misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("shapes", shapes.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.put("planCacheHits", statistics.getQueryPlanCacheHitCount());
+        stats.put("planCacheMisses", statistics.getQueryPlanCacheMissCount());
+        List<Map<String, Object>> unindexed = new ArrayList<>();
+        for (Shape shape : shapes.values()) {
+            if (shape.indexed)
+                continue;
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("query", shape.jpql);
+            report.put("executions", shape.executions.get());
+            unindexed.add(report);
+        }
+        unindexed.sort(Comparator.comparingLong(report -> -(Long) report.get("executions")));
+        stats.put("unindexed", unindexed);
+        return stats;
+    }
+
+    public void clear() {
+        shapes.clear();
+        indexedColumns = null;
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * A shape is index-supported when one of its equality or range filters is the leading column of an index, or,
+     * without usable filters, when its order is. Shapes without any filter or order read the whole table by
+     * design and are not reported.
+     */
+    private boolean isIndexed(int mask, PlayerOrder order) {
+        Set<String> indexed = getIndexedColumns();
+        boolean filtered = false;
+        for (int field = 0; field < FIELDS; field++) {
+            if ((mask & (1 << field)) == 0)
+                continue;
+            filtered = true;
+            if (COLUMNS[field] != null && indexed.contains(COLUMNS[field]))
+                return true;
+        }
+        if (order != null && order != PlayerOrder.ID)
+            return indexed.contains(order.getFieldName().toLowerCase());
+        return !filtered;
+    }
+
+    private Set<String> getIndexedColumns() {
+        Set<String> columns = indexedColumns;
+        if (columns != null)
+            return columns;
+        columns = new HashSet<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "PLAYER" : "player";
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && column != null)
+                        columns.add(column.toLowerCase());
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read indexes of table player", e);
+            return Collections.emptySet();
+        }
+        indexedColumns = columns;
+        return columns;
+    }
+
+    private static String compile(Kind kind, int mask, PlayerOrder order, int seek) {
+        StringBuilder jpql = new StringBuilder(kind.select);
+        String separator = " where ";
+        String[] conditions = {
+                "p.name like :name",
+                "p.title like :title",
+                "p.race = :race",
+                "p.profession = :profession",
+                "p.birthday >= :after",
+                "p.birthday <= :before",
+                "p.banned = :banned",
+                "p.experience >= :minExperience",
+                "p.experience <= :maxExperience",
+                "p.level >= :minLevel",
+                "p.level <= :maxLevel"
+        };
+        for (int field = 0; field < FIELDS; field++) {
+            if ((mask & (1 << field)) != 0) {
+                jpql.append(separator).append(conditions[field]);
+                separator = " and ";
+            }
+        }
+        if (seek != NO_SEEK) {
+            String field = "p." + order.getFieldName();
+            jpql.append(separator);
+            if (seek == SEEK_ID)
+                jpql.append("p.id > :cursorId");
+            else if (seek == SEEK_VALUE)
+                jpql.append("(").append(field).append(" > :cursorValue or (").append(field)
+                        .append(" = :cursorValue and p.id > :cursorId))");
+            else
+                jpql.append("(").append(field).append(" is not null or (").append(field)
+                        .append(" is null and p.id > :cursorId))");
+        }
+        if (kind == Kind.FACETS)
+            jpql.append(" group by p.race, p.profession, p.banned");
+        if (order == PlayerOrder.ID)
+            jpql.append(" order by p.id");
+        else if (order != null)
+            jpql.append(" order by p.").append(order.getFieldName()).append(", p.id");
+        return jpql.toString();
+    }
+
+    private static int mask(PlayerFilter filter) {
+        int mask = 0;
+        if (filter.getName() != null)
+            mask |= NAME;
+        if (filter.getTitle() != null)
+            mask |= TITLE;
+        if (filter.getRace() != null)
+            mask |= RACE;
+        if (filter.getProfession() != null)
+            mask |= PROFESSION;
+        if (filter.getAfter() != null)
+            mask |= AFTER;
+        if (filter.getBefore() != null)
+            mask |= BEFORE;
+        if (filter.getBanned() != null)
+            mask |= BANNED;
+        if (filter.getMinExperience() != null)
+            mask |= MIN_EXPERIENCE;
+        if (filter.getMaxExperience() != null)
+            mask |= MAX_EXPERIENCE;
+        if (filter.getMinLevel() != null)
+            mask |= MIN_LEVEL;
+        if (filter.getMaxLevel() != null)
+            mask |= MAX_LEVEL;
+        return mask;
+    }
+
+    private static int seek(PlayerCursor cursor) {
+        if (cursor == null)
+            return NO_SEEK;
+        if (cursor.getOrder() == PlayerOrder.ID)
+            return SEEK_ID;
+        return cursor.getValue() == null ? SEEK_NULL : SEEK_VALUE;
+    }
+
+    private static final class Shape {
+        private final String jpql;
+        private final boolean indexed;
+        private final AtomicLong executions = new AtomicLong();
+
+        Shape(String jpql, boolean indexed) {
+            this.jpql = jpql;
+            this.indexed = indexed;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class PlayerSearchResult {
+    private List<Player> players;
+    private int count;
+    private final Map<Race, Integer> races = new EnumMap<>(Race.class);
+    private final Map<Profession, Integer> professions = new EnumMap<>(Profession.class);
+    private final Map<Boolean, Integer> banned = new TreeMap<>();
+
+    public PlayerSearchResult() {
+        for (Race race : Race.values())
+            races.put(race, 0);
+        for (Profession profession : Profession.values())
+            professions.put(profession, 0);
+        banned.put(false, 0);
+        banned.put(true, 0);
+    }
+
+    public void add(Race race, Profession profession, Boolean banned, int count) {
+        this.count += count;
+        if (race != null)
+            races.merge(race, count, Integer::sum);
+        if (profession != null)
+            professions.merge(profession, count, Integer::sum);
+        if (banned != null)
+            this.banned.merge(banned, count, Integer::sum);
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(List<Player> players) {
+        this.players = players;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Map<Race, Integer> getRaces() {
+        return races;
+    }
+
+    public Map<Profession, Integer> getProfessions() {
+        return professions;
+    }
+
+    public Map<Boolean, Integer> getBanned() {
+        return banned;
+    }
+}
@@ -0,0 +1,178 @@
+package com.game.repository;
+
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class PlayerStats {
+    private static final Race[] RACES = Race.values();
+    private static final Profession[] PROFESSIONS = Profession.values();
+    private static final int CELLS = RACES.length * PROFESSIONS.length * 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${game.stats.enabled:true}")
+    private boolean enabled;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    private volatile boolean loaded;
+    private long[] counts = new long[CELLS];
+    private long[] experienceSums = new long[CELLS];
+    private long[] levels = new long[0];
+    private long total;
+    private long reconciled;
+    private long drift;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> getStats() {
+        if (!loaded)
+            reconcile();
+        lock.readLock().lock();
+        try {
+            List<Map<String, Object>> cells = new ArrayList<>();
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (counts[cell] == 0)
+                    continue;
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("race", RACES[cell / (PROFESSIONS.length * 2)]);
+                row.put("profession", PROFESSIONS[cell / 2 % PROFESSIONS.length]);
+                row.put("banned", cell % 2 == 1);
+                row.put("count", counts[cell]);
+                row.put("experience", experienceSums[cell]);
+                cells.add(row);
+            }
+            Map<Integer, Long> histogram = new LinkedHashMap<>();
+            for (int level = 0; level < levels.length; level++) {
+                if (levels[level] != 0)
+                    histogram.put(level, levels[level]);
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("total", total);
+            stats.put("cells", cells);
+            stats.put("levels", histogram);
+            stats.put("reconciled", reconciled);
+            stats.put("drift", drift);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Changes committed between the aggregate queries and the swap below are lost until the next run; the
+    // scheduled reconciliation bounds how long such drift can live.
+    @Scheduled(fixedDelayString = "${game.stats.reconcile-millis:300000}")
+    public void reconcile() {
+        if (!enabled)
+            return;
+        long[] newCounts = new long[CELLS];
+        long[] newExperienceSums = new long[CELLS];
+        long[] newLevels = new long[0];
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            List<Object[]> rows = em.createQuery("select p.race, p.profession, p.banned, count(p), sum(p.experience)"
+                    + " from Player p group by p.race, p.profession, p.banned", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                int cell = cell((Race) row[0], (Profession) row[1], (Boolean) row[2]);
+                if (cell < 0)
+                    continue;
+                newCounts[cell] += (Long) row[3];
+                newExperienceSums[cell] += row[4] == null ? 0 : (Long) row[4];
+            }
+            rows = em.createQuery("select p.level, count(p) from Player p where p.level is not null group by p.level",
+                    Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                int level = (Integer) row[0];
+                if (level >= newLevels.length)
+                    newLevels = Arrays.copyOf(newLevels, level + 1);
+                newLevels[level] += (Long) row[1];
+            }
+        } finally {
+            em.close();
+        }
+        lock.writeLock().lock();
+        try {
+            long newTotal = 0;
+            long difference = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                newTotal += newCounts[cell];
+                if (loaded)
+                    difference += Math.abs(newCounts[cell] - counts[cell]);
+            }
+            counts = newCounts;
+            experienceSums = newExperienceSums;
+            levels = newLevels;
+            total = newTotal;
+            drift = difference;
+            reconciled = System.currentTimeMillis();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChange(PlayerChangeEvent event) {
+        if (!enabled)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (!loaded)
+                return;
+            if (event.getBefore() != null)
+                apply(event.getBefore(), -1);
+            if (event.getAfter() != null)
+                apply(event.getAfter(), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerPatch(PlayerPatchEvent event) {
+        if (enabled && event.getUpdated() > 0)
+            loaded = false;
+    }
+
+    private void apply(Player player, int sign) {
+        int cell = cell(player.getRace(), player.getProfession(), player.getBanned());
+        if (cell >= 0) {
+            counts[cell] += sign;
+            experienceSums[cell] += sign * (long) (player.getExperience() == null ? 0 : player.getExperience());
+            total += sign;
+        }
+        Integer level = player.getLevel();
+        if (level == null || level < 0)
+            return;
+        if (level >= levels.length)
+            levels = Arrays.copyOf(levels, level + 1);
+        levels[level] += sign;
+    }
+
+    private static int cell(Race race, Profession profession, Boolean banned) {
+        if (race == null || profession == null)
+            return -1;
+        return (race.ordinal() * PROFESSIONS.length + profession.ordinal()) * 2 + (Boolean.TRUE.equals(banned) ? 1 : 0);
+    }
+}
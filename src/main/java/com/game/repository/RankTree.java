@@ -0,0 +1,150 @@
+package com.game.repository;
+
+import java.util.SplittableRandom;
+
+/**
+ * Treap of (experience, id) ordered by experience descending, then id ascending, with subtree sizes so that the
+ * rank of a key and the key at a rank are both found in O(log n).
+ */
+final class RankTree {
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(long id, int experience) {
+        root = insert(root, new Node(id, experience, random.nextInt()));
+    }
+
+    void remove(long id, int experience) {
+        root = remove(root, id, experience);
+    }
+
+    /**
+     * Returns the 1-based position of the key, or 0 when it is not in the tree.
+     */
+    int rank(long id, int experience) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(id, experience, node);
+            if (c == 0)
+                return rank + size(node.left) + 1;
+            if (c < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the id at the 0-based position, which must be less than {@link #size()}.
+     */
+    long select(int index) {
+        Node node = root;
+        while (true) {
+            int left = size(node.left);
+            if (index < left) {
+                node = node.left;
+            } else if (index == left) {
+                return node.id;
+            } else {
+                index -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null)
+            return item;
+        if (item.priority > node.priority) {
+            split(node, item.id, item.experience, item);
+            return update(item);
+        }
+        if (compare(item.id, item.experience, node) < 0)
+            node.left = insert(node.left, item);
+        else
+            node.right = insert(node.right, item);
+        return update(node);
+    }
+
+    private static Node remove(Node node, long id, int experience) {
+        if (node == null)
+            return null;
+        int c = compare(id, experience, node);
+        if (c == 0)
+            return merge(node.left, node.right);
+        if (c < 0)
+            node.left = remove(node.left, id, experience);
+        else
+            node.right = remove(node.right, id, experience);
+        return update(node);
+    }
+
+    // Splits the subtree into keys ordered before (id, experience) and the rest, hanging them off target.
+    private static void split(Node node, long id, int experience, Node target) {
+        if (node == null) {
+            target.left = null;
+            target.right = null;
+            return;
+        }
+        if (compare(id, experience, node) > 0) {
+            split(node.right, id, experience, target);
+            node.right = target.left;
+            target.left = update(node);
+        } else {
+            split(node.left, id, experience, target);
+            node.left = target.right;
+            target.right = update(node);
+        }
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static int compare(long id, int experience, Node node) {
+        if (experience != node.experience)
+            return experience > node.experience ? -1 : 1;
+        return Long.compare(id, node.id);
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final int experience;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        Node(long id, int experience, int priority) {
+            this.id = id;
+            this.experience = experience;
+            this.priority = priority;
+        }
+    }
+}
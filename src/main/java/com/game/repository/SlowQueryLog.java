@@ -0,0 +1,131 @@
+package com.game.repository;
+
+import com.game.controller.PlayerOrder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times player list and count queries per fingerprint: the operation, the set of filter fields present and the
+ * order, with all literal values left out. Queries slower than the threshold are logged, and the slowest and most
+ * frequent fingerprints are listed with latency percentiles in {@link #getStats()}.
+ */
+@Component
+public class SlowQueryLog {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    // Bounds memory if callers ever produce unexpected shapes; the excess is folded into one entry.
+    private static final int MAX_FINGERPRINTS = 512;
+    private static final String OTHER = "other";
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    @Value("${game.slow-query.threshold-millis:200}")
+    private long thresholdMillis;
+
+    @Value("${game.slow-query.top:10}")
+    private int top;
+
+    public void record(String operation, PlayerFilter filter, PlayerOrder order, boolean indexed, long nanos) {
+        String key = fingerprint(operation, filter, order, indexed);
+        Fingerprint fingerprint = fingerprints.get(key);
+        if (fingerprint == null) {
+            if (fingerprints.size() >= MAX_FINGERPRINTS)
+                key = OTHER;
+            fingerprint = fingerprints.computeIfAbsent(key, k -> new Fingerprint());
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        fingerprint.histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (micros >= TimeUnit.MILLISECONDS.toMicros(thresholdMillis)) {
+            fingerprint.slow.incrementAndGet();
+            log.warn("Slow query ({} ms): {}", micros / 1000.0, key);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> reports = new ArrayList<>();
+        for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet())
+            reports.add(report(entry.getKey(), entry.getValue()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMillis", thresholdMillis);
+        stats.put("fingerprints", reports.size());
+        stats.put("slowest", top(reports, "p99Millis"));
+        stats.put("mostFrequent", top(reports, "count"));
+        return stats;
+    }
+
+    public void clear() {
+        fingerprints.clear();
+    }
+
+    static String fingerprint(String operation, PlayerFilter filter, PlayerOrder order, boolean indexed) {
+        StringBuilder fingerprint = new StringBuilder(operation).append(" where ");
+        int length = fingerprint.length();
+        appendIf(fingerprint, filter.getName() != null, "name like ?");
+        appendIf(fingerprint, filter.getTitle() != null, "title like ?");
+        appendIf(fingerprint, filter.getRace() != null, "race = ?");
+        appendIf(fingerprint, filter.getProfession() != null, "profession = ?");
+        appendIf(fingerprint, filter.getAfter() != null, "birthday >= ?");
+        appendIf(fingerprint, filter.getBefore() != null, "birthday <= ?");
+        appendIf(fingerprint, filter.getBanned() != null, "banned = ?");
+        appendIf(fingerprint, filter.getMinExperience() != null, "experience >= ?");
+        appendIf(fingerprint, filter.getMaxExperience() != null, "experience <= ?");
+        appendIf(fingerprint, filter.getMinLevel() != null, "level >= ?");
+        appendIf(fingerprint, filter.getMaxLevel() != null, "level <= ?");
+        if (fingerprint.length() == length)
+            fingerprint.setLength(length - " where ".length());
+        if (order != null)
+            fingerprint.append(" order by ").append(order.getFieldName());
+        if (indexed)
+            fingerprint.append(" [index]");
+        return fingerprint.toString();
+    }
+
+    private static void appendIf(StringBuilder fingerprint, boolean present, String condition) {
+        if (!present)
+            return;
+        if (fingerprint.charAt(fingerprint.length() - 1) != ' ')
+            fingerprint.append(" and ");
+        fingerprint.append(condition);
+    }
+
+    private static Map<String, Object> report(String key, Fingerprint fingerprint) {
+        Histogram histogram = fingerprint.histogram.copy();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("fingerprint", key);
+        report.put("count", histogram.getTotalCount());
+        report.put("slow", fingerprint.slow.get());
+        report.put("meanMillis", histogram.getMean() / 1000);
+        report.put("p50Millis", histogram.getValueAtPercentile(50) / 1000.0);
+        report.put("p90Millis", histogram.getValueAtPercentile(90) / 1000.0);
+        report.put("p99Millis", histogram.getValueAtPercentile(99) / 1000.0);
+        report.put("p999Millis", histogram.getValueAtPercentile(99.9) / 1000.0);
+        report.put("maxMillis", histogram.getMaxValue() / 1000.0);
+        return report;
+    }
+
+    private List<Map<String, Object>> top(List<Map<String, Object>> reports, String field) {
+        List<Map<String, Object>> sorted = new ArrayList<>(reports);
+        sorted.sort(Comparator.comparingDouble(report -> -((Number) report.get(field)).doubleValue()));
+        return sorted.subList(0, Math.min(top, sorted.size()));
+    }
+
+    private static final class Fingerprint {
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 2);
+        private final AtomicLong slow = new AtomicLong();
+    }
+}
@@ -0,0 +1,111 @@
+package com.game.repository;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+class TrigramIndex {
+    static final int GRAM = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    void add(int slot, String text) {
+        if (text == null)
+            return;
+        for (int i = 0; i + GRAM <= text.length(); i++)
+            postings.computeIfAbsent(trigram(text, i), key -> new Postings()).add(slot);
+    }
+
+    void remove(int slot, String text) {
+        if (text == null)
+            return;
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            Long key = trigram(text, i);
+            Postings list = postings.get(key);
+            if (list != null && list.remove(slot) && list.size == 0)
+                postings.remove(key);
+        }
+    }
+
+    BitSet candidates(String query) {
+        if (query == null || query.length() < GRAM)
+            return null;
+        Postings[] lists = new Postings[query.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(trigram(query, i));
+            if (lists[i] == null)
+                return new BitSet();
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] slots = Arrays.copyOf(lists[0].slots, lists[0].size);
+        int size = slots.length;
+        for (int i = 1; i < lists.length && size > 0; i++)
+            size = lists[i].retain(slots, size);
+        BitSet result = new BitSet();
+        for (int i = 0; i < size; i++)
+            result.set(slots[i]);
+        return result;
+    }
+
+    // Keys are case-folded per char the way String.regionMatches(true, ...) compares, so candidates are a superset
+    // of PlayerFilter.containsIgnoreCase matches.
+    private static long trigram(String text, int from) {
+        return ((long) fold(text.charAt(from)) << 32) | ((long) fold(text.charAt(from + 1)) << 16)
+                | fold(text.charAt(from + 2));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] < slot) {
+                append(slot);
+                return;
+            }
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            if (position >= 0)
+                return;
+            position = -position - 1;
+            if (size == slots.length)
+                slots = Arrays.copyOf(slots, size * 2);
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int position = Arrays.binarySearch(slots, 0, size, slot);
+            if (position < 0)
+                return false;
+            System.arraycopy(slots, position + 1, slots, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        int retain(int[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count; i++) {
+                while (j < size && slots[j] < candidates[i])
+                    j++;
+                if (j == size)
+                    break;
+                if (slots[j] == candidates[i])
+                    candidates[kept++] = candidates[i];
+            }
+            return kept;
+        }
+
+        private void append(int slot) {
+            if (size == slots.length)
+                slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.game.service;
+
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class EntityCache {
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public EntityCache(EntityManagerFactory entityManagerFactory, CacheManager entityCacheManager) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = entityCacheManager;
+    }
+
+    public Map<String, Object> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hits", hits);
+            stats.put("misses", misses);
+            stats.put("puts", regionStatistics.getPutCount());
+            stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            stats.put("entries", regionStatistics.getElementCountInMemory());
+            Ehcache cache = cacheManager.getEhcache(region);
+            if (cache != null) {
+                stats.put("maxEntries", cache.getCacheConfiguration().getMaxEntriesLocalHeap());
+                stats.put("ttlSeconds", cache.getCacheConfiguration().getTimeToLiveSeconds());
+                stats.put("eviction", cache.getCacheConfiguration().getMemoryStoreEvictionPolicy().toString());
+                stats.put("evictions", cache.getStatistics().cacheEvictedCount());
+                stats.put("expirations", cache.getStatistics().cacheExpiredCount());
+            }
+            regions.put(region, stats);
+        }
+        return regions;
+    }
+
+    public void clear() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
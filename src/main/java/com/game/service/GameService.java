@@ -1,22 +1,50 @@
 package com.game.service;
 
+import com.game.controller.PlayerCursor;
 import com.game.controller.PlayerOrder;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
+import com.game.repository.LeaderboardEntry;
+import com.game.repository.PlayerPatch;
+import com.game.repository.PlayerSearchResult;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface GameService {
     List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
                             Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                             Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize);
+    List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
+                            Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                            Integer maxLevel, PlayerOrder order, PlayerCursor cursor, int pageSize);
+    PlayerSearchResult search(String name, String title, Race race, Profession profession, Long after, Long before,
+                              Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                              Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize);
     Integer playerCount(String name, String title, Race race, Profession profession, Long after, Long before,
                         Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                         Integer maxLevel);
     void create(Player player);
+    void createAll(List<Player> players);
     boolean delete(Long id);
     Player getPlayer(Long id);
+    Long getVersion(Long id);
 
     Player update(Long id, Player player);
+
+    void export(String name, String title, Race race, Profession profession, Long after, Long before,
+                Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                Integer maxLevel, PlayerOrder order, Consumer<Player> consumer);
+
+    int patch(String name, String title, Race race, Profession profession, Long after, Long before,
+              Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+              Integer maxLevel, PlayerPatch patch);
+
+    Map<String, Object> getStats();
+
+    List<LeaderboardEntry> getLeaderboard(Race race, Profession profession, int fromRank, int count);
+
+    LeaderboardEntry getLeaderboardRank(Long id, Race race, Profession profession);
 }
@@ -1,33 +1,89 @@
 package com.game.service;
 
+import com.game.controller.PlayerCursor;
 import com.game.controller.PlayerOrder;
 import com.game.entity.Player;
 import com.game.entity.Profession;
 import com.game.entity.Race;
 import com.game.repository.GameRepository;
+import com.game.repository.Leaderboard;
+import com.game.repository.LeaderboardEntry;
+import com.game.repository.PlayerFilter;
+import com.game.repository.PlayerPatch;
+import com.game.repository.PlayerSearchResult;
+import com.game.repository.PlayerStats;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class GameServiceImpl implements GameService {
     private GameRepository gameRepository;
 
+    private PlayerQueryCache queryCache;
+
+    private PlayerStats playerStats;
+
+    private Leaderboard leaderboard;
+
     @Autowired
     public void setGameRepository(GameRepository gameRepository) {
         this.gameRepository = gameRepository;
     }
 
+    @Autowired
+    public void setQueryCache(PlayerQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @Autowired
+    public void setPlayerStats(PlayerStats playerStats) {
+        this.playerStats = playerStats;
+    }
+
+    @Autowired
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
                                    Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                                    Integer maxLevel, PlayerOrder order, int pageNumber, int pageSize) {
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        return queryCache.get(PlayerQueryCache.Key.list(filter, order, pageNumber, pageSize), () ->
+                gameRepository.getPlayers(name, title, race, profession, after, before, banned, minExperience,
+                        maxExperience, minLevel, maxLevel, order, pageNumber, pageSize));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Player> getPlayers(String name, String title, Race race, Profession profession, Long after, Long before,
+                                   Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                                   Integer maxLevel, PlayerOrder order, PlayerCursor cursor, int pageSize) {
         return gameRepository.getPlayers(name, title, race, profession, after, before, banned, minExperience,
-                maxExperience, minLevel, maxLevel, order, pageNumber, pageSize);
+                maxExperience, minLevel, maxLevel, order, cursor, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlayerSearchResult search(String name, String title, Race race, Profession profession, Long after,
+                                     Long before, Boolean banned, Integer minExperience, Integer maxExperience,
+                                     Integer minLevel, Integer maxLevel, PlayerOrder order, int pageNumber,
+                                     int pageSize) {
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel);
+        return queryCache.get(PlayerQueryCache.Key.search(filter, order, pageNumber, pageSize), () ->
+                gameRepository.search(name, title, race, profession, after, before, banned, minExperience,
+                        maxExperience, minLevel, maxLevel, order, pageNumber, pageSize));
     }
 
     @Override
@@ -35,8 +91,20 @@ public class GameServiceImpl implements GameService {
     public Integer playerCount(String name, String title, Race race, Profession profession, Long after, Long before,
                                Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
                                Integer maxLevel) {
-        return gameRepository.playersCount(name, title, race, profession, after, before, banned, minExperience,
+        PlayerFilter filter = new PlayerFilter(name, title, race, profession, after, before, banned, minExperience,
                 maxExperience, minLevel, maxLevel);
+        return queryCache.get(PlayerQueryCache.Key.count(filter), () ->
+                gameRepository.playersCount(name, title, race, profession, after, before, banned, minExperience,
+                        maxExperience, minLevel, maxLevel));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(String name, String title, Race race, Profession profession, Long after, Long before,
+                       Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                       Integer maxLevel, PlayerOrder order, Consumer<Player> consumer) {
+        gameRepository.forEachPlayer(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel, order, consumer);
     }
 
     @Override
@@ -44,6 +112,11 @@ public class GameServiceImpl implements GameService {
         gameRepository.create(player);
     }
 
+    @Override
+    public void createAll(List<Player> players) {
+        gameRepository.createAll(players);
+    }
+
     @Override
     public boolean delete(Long id) {
         return gameRepository.delete(id);
@@ -55,8 +128,56 @@ public class GameServiceImpl implements GameService {
         return gameRepository.getPlayer(id);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Long getVersion(Long id) {
+        return gameRepository.getVersion(id);
+    }
+
     @Override
     public Player update(Long id, Player player) {
         return gameRepository.update(id, player);
     }
+
+    @Override
+    public int patch(String name, String title, Race race, Profession profession, Long after, Long before,
+                     Boolean banned, Integer minExperience, Integer maxExperience, Integer minLevel,
+                     Integer maxLevel, PlayerPatch patch) {
+        return gameRepository.patch(name, title, race, profession, after, before, banned, minExperience,
+                maxExperience, minLevel, maxLevel, patch);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats() {
+        return playerStats.isEnabled() ? playerStats.getStats() : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaderboardEntry> getLeaderboard(Race race, Profession profession, int fromRank, int count) {
+        if (!leaderboard.isEnabled())
+            return null;
+        int rank = Math.max(fromRank, 1);
+        List<Player> players = gameRepository.getPlayersById(leaderboard.range(race, profession, rank, count));
+        List<LeaderboardEntry> entries = new ArrayList<>(players.size());
+        for (Player player : players) {
+            if (player != null)
+                entries.add(new LeaderboardEntry(rank, player));
+            rank++;
+        }
+        return entries;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LeaderboardEntry getLeaderboardRank(Long id, Race race, Profession profession) {
+        if (!leaderboard.isEnabled())
+            return null;
+        int rank = leaderboard.rank(id, race, profession);
+        if (rank == 0)
+            return null;
+        Player player = gameRepository.getPlayer(id);
+        return player == null ? null : new LeaderboardEntry(rank, player);
+    }
 }
@@ -0,0 +1,68 @@
+package com.game.service;
+
+public class ImportProgress {
+    private final String importId;
+    private final long resumedFrom;
+    private final long rows;
+    private final long imported;
+    private final long invalid;
+    private final int chunks;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+    private final boolean done;
+    private final String error;
+
+    ImportProgress(String importId, long resumedFrom, long rows, long imported, long invalid, int chunks,
+                   long elapsedMillis, boolean done, String error) {
+        this.importId = importId;
+        this.resumedFrom = resumedFrom;
+        this.rows = rows;
+        this.imported = imported;
+        this.invalid = invalid;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? 0.0 : (rows - resumedFrom) * 1000.0 / elapsedMillis;
+        this.done = done;
+        this.error = error;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public long getResumedFrom() {
+        return resumedFrom;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
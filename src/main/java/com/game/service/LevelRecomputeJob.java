@@ -0,0 +1,168 @@
+package com.game.service;
+
+import com.game.repository.GameRepository;
+import com.game.repository.PlayerPatchEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class LevelRecomputeJob {
+    private GameRepository gameRepository;
+
+    private TransactionTemplate transaction;
+
+    private Executor executor;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${game.levels.recompute.threads:2}")
+    private int threads;
+
+    @Value("${game.levels.recompute.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${game.levels.recompute.max-rows-per-second:5000}")
+    private int maxRowsPerSecond;
+
+    private volatile Run current;
+
+    @Autowired
+    public void setGameRepository(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setExecutor(@Qualifier("recomputeExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public synchronized boolean start() {
+        if (current != null && current.isRunning())
+            return false;
+        Run run = new Run(gameRepository.getMaxId());
+        current = run;
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[threads];
+        for (int i = 0; i < threads; i++)
+            workers[i] = CompletableFuture.runAsync(() -> work(run), executor);
+        run.completion = CompletableFuture.allOf(workers).whenComplete((ignored, e) -> {
+            // Listeners rebuild from the whole table on a patch event, so the run invalidates them once at the
+            // end rather than per chunk; until then they serve the previous levels.
+            long updated = run.updated.get();
+            if (updated > 0)
+                eventPublisher.publishEvent(new PlayerPatchEvent(null, null, (int) Math.min(updated, Integer.MAX_VALUE)));
+            run.finish(e);
+        });
+        return true;
+    }
+
+    public boolean cancel() {
+        Run run = current;
+        if (run == null || !run.isRunning())
+            return false;
+        run.cancelled = true;
+        return true;
+    }
+
+    public CompletableFuture<?> getCompletion() {
+        Run run = current;
+        return run == null ? CompletableFuture.completedFuture(null) : run.completion;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Run run = current;
+        status.put("running", run != null && run.isRunning());
+        if (run == null)
+            return status;
+        status.put("maxId", run.maxId);
+        status.put("chunks", run.chunks.get());
+        status.put("updated", run.updated.get());
+        status.put("cancelled", run.cancelled);
+        status.put("started", run.started);
+        status.put("elapsedMillis", (run.finished == 0 ? System.currentTimeMillis() : run.finished) - run.started);
+        status.put("error", run.error);
+        return status;
+    }
+
+    private void work(Run run) {
+        while (!run.cancelled) {
+            long fromId = run.nextId.getAndAdd(chunkSize);
+            if (fromId > run.maxId)
+                return;
+            run.throttle(chunkSize, maxRowsPerSecond);
+            Integer updated = transaction.execute(status -> gameRepository.recomputeLevels(fromId, fromId + chunkSize));
+            run.updated.addAndGet(updated == null ? 0 : updated);
+            run.chunks.incrementAndGet();
+        }
+    }
+
+    private static final class Run {
+        private final long maxId;
+        private final long started = System.currentTimeMillis();
+        private final AtomicLong nextId = new AtomicLong(1);
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+        private volatile CompletableFuture<?> completion;
+        private volatile boolean cancelled;
+        private volatile long finished;
+        private volatile String error;
+
+        Run(long maxId) {
+            this.maxId = maxId;
+        }
+
+        boolean isRunning() {
+            return finished == 0;
+        }
+
+        // Every chunk reserves its share of the row budget up front, so all workers together stay under the rate
+        // however many of them there are.
+        void throttle(int rows, int maxRowsPerSecond) {
+            if (maxRowsPerSecond <= 0)
+                return;
+            long cost = TimeUnit.SECONDS.toNanos(rows) / maxRowsPerSecond;
+            long now = System.nanoTime();
+            long slot = nextSlotNanos.getAndAccumulate(cost, (next, c) -> Math.max(next, now) + c);
+            long wait = slot - now;
+            if (wait <= 0)
+                return;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            }
+        }
+
+        void finish(Throwable e) {
+            if (e != null)
+                error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            finished = System.currentTimeMillis();
+        }
+    }
+}
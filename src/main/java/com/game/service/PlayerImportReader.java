@@ -0,0 +1,155 @@
+package com.game.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public abstract class PlayerImportReader implements Closeable {
+
+    public abstract Player next() throws IOException;
+
+    public static PlayerImportReader ndjson(ObjectMapper objectMapper, InputStream in) throws IOException {
+        MappingIterator<Player> players = objectMapper.readerFor(Player.class).readValues(in);
+        return new PlayerImportReader() {
+            @Override
+            public Player next() throws IOException {
+                if (!players.hasNextValue())
+                    return null;
+                try {
+                    return players.nextValue();
+                } catch (JsonMappingException e) {
+                    throw new InvalidRowException(e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                players.close();
+            }
+        };
+    }
+
+    public static PlayerImportReader csv(InputStream in) throws IOException {
+        return new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    public static class InvalidRowException extends RuntimeException {
+        public InvalidRowException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class CsvReader extends PlayerImportReader {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null)
+                return;
+            for (int i = 0; i < header.size(); i++)
+                columns.put(header.get(i).trim(), i);
+        }
+
+        @Override
+        public Player next() throws IOException {
+            List<String> record = readRecord();
+            if (record == null)
+                return null;
+            try {
+                Player player = new Player();
+                player.setName(text(record, "name"));
+                player.setTitle(text(record, "title"));
+                String race = text(record, "race");
+                player.setRace(race == null ? null : Race.valueOf(race));
+                String profession = text(record, "profession");
+                player.setProfession(profession == null ? null : Profession.valueOf(profession));
+                player.setBirthday(date(text(record, "birthday")));
+                String banned = text(record, "banned");
+                player.setBanned(banned != null && Boolean.parseBoolean(banned));
+                String experience = text(record, "experience");
+                player.setExperience(experience == null ? null : Integer.valueOf(experience));
+                return player;
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new InvalidRowException(e.getMessage());
+            }
+        }
+
+        private String text(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty())
+                return null;
+            return record.get(index);
+        }
+
+        private static Date date(String value) {
+            if (value == null)
+                return null;
+            if (value.chars().allMatch(Character::isDigit))
+                return new Date(Long.parseLong(value));
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            while (c == '\r' || c == '\n')
+                c = reader.read();
+            if (c < 0)
+                return null;
+
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (; c >= 0; c = reader.read()) {
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            record.add(field.toString());
+            return record;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.game.service;
+
+import com.game.controller.PlayerValidator;
+import com.game.entity.Player;
+import com.game.repository.GameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+public class PlayerImporter {
+    private GameRepository gameRepository;
+
+    private TransactionTemplate transaction;
+
+    @Value("${game.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    public void setGameRepository(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportProgress run(String importId, PlayerImportReader reader, Consumer<ImportProgress> listener) {
+        long started = System.currentTimeMillis();
+        Long checkpoint = transaction.execute(status -> gameRepository.getImportCheckpoint(importId));
+        long resumedFrom = checkpoint == null ? 0 : checkpoint;
+        List<Player> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        long committed = resumedFrom;
+        long imported = 0;
+        long invalid = 0;
+        int chunks = 0;
+        try {
+            while (true) {
+                Player player;
+                try {
+                    player = reader.next();
+                } catch (PlayerImportReader.InvalidRowException e) {
+                    if (++rows > resumedFrom)
+                        invalid++;
+                    continue;
+                }
+                if (player == null)
+                    break;
+                if (++rows <= resumedFrom)
+                    continue;
+                if (!PlayerValidator.isValidForCreate(player)) {
+                    invalid++;
+                    continue;
+                }
+                chunk.add(player);
+                if (chunk.size() == chunkSize) {
+                    commit(importId, chunk, rows);
+                    committed = rows;
+                    imported += chunk.size();
+                    chunks++;
+                    chunk.clear();
+                    listener.accept(new ImportProgress(importId, resumedFrom, rows, imported, invalid, chunks,
+                            System.currentTimeMillis() - started, false, null));
+                }
+            }
+            if (rows > resumedFrom) {
+                commit(importId, chunk, rows);
+                imported += chunk.size();
+                chunks++;
+            }
+        } catch (IOException | RuntimeException e) {
+            ImportProgress failed = new ImportProgress(importId, resumedFrom, committed,
+                    imported, invalid, chunks, System.currentTimeMillis() - started, false,
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            listener.accept(failed);
+            return failed;
+        }
+        ImportProgress done = new ImportProgress(importId, resumedFrom, Math.max(rows, resumedFrom), imported,
+                invalid, chunks, System.currentTimeMillis() - started, true, null);
+        listener.accept(done);
+        return done;
+    }
+
+    private void commit(String importId, List<Player> chunk, long rows) {
+        transaction.execute(status -> {
+            if (!chunk.isEmpty())
+                gameRepository.createAll(chunk);
+            gameRepository.saveImportCheckpoint(importId, rows);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,195 @@
+package com.game.service;
+
+import com.game.controller.PlayerOrder;
+import com.game.repository.PlayerChangeEvent;
+import com.game.repository.PlayerFilter;
+import com.game.repository.PlayerPatchEvent;
+import com.game.repository.PlayerSearchResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class PlayerQueryCache {
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private long weight;
+
+    @Value("${game.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${game.cache.max-weight:10000}")
+    private long maxWeight;
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<T> loader) {
+        if (!enabled)
+            return loader.get();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        long stamp = generation.get();
+        T value = loader.get();
+        put(key, value, stamp);
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChange(PlayerChangeEvent event) {
+        if (!enabled)
+            return;
+        generation.incrementAndGet();
+        synchronized (entries) {
+            Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry> entry = iterator.next();
+                if (affects(entry.getKey().filter, event)) {
+                    weight -= entry.getValue().weight;
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerPatch(PlayerPatchEvent event) {
+        if (enabled && event.getUpdated() > 0)
+            clear();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("enabled", enabled);
+            stats.put("entries", entries.size());
+            stats.put("weight", weight);
+            stats.put("maxWeight", maxWeight);
+        }
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private void put(Key key, Object value, long stamp) {
+        long entryWeight = weigh(value);
+        if (entryWeight > maxWeight)
+            return;
+        synchronized (entries) {
+            if (generation.get() != stamp)
+                return;
+            Entry previous = entries.put(key, new Entry(value, entryWeight));
+            if (previous != null)
+                weight -= previous.weight;
+            weight += entryWeight;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean affects(PlayerFilter filter, PlayerChangeEvent event) {
+        if (event.getBefore() == null && event.getAfter() == null)
+            return true;
+        return (event.getBefore() != null && filter.matches(event.getBefore()))
+                || (event.getAfter() != null && filter.matches(event.getAfter()));
+    }
+
+    private static long weigh(Object value) {
+        if (value instanceof Collection)
+            return ((Collection<?>) value).size() + 1;
+        if (value instanceof PlayerSearchResult)
+            return ((PlayerSearchResult) value).getPlayers().size() + 1;
+        return 1;
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long weight;
+
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    public static final class Key {
+        private final String kind;
+        private final PlayerFilter filter;
+        private final PlayerOrder order;
+        private final int pageNumber;
+        private final int pageSize;
+
+        private Key(String kind, PlayerFilter filter, PlayerOrder order, int pageNumber, int pageSize) {
+            this.kind = kind;
+            this.filter = filter;
+            this.order = order;
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+        }
+
+        public static Key list(PlayerFilter filter, PlayerOrder order, int pageNumber, int pageSize) {
+            return new Key("list", filter, order, pageNumber, pageSize);
+        }
+
+        public static Key search(PlayerFilter filter, PlayerOrder order, int pageNumber, int pageSize) {
+            return new Key("search", filter, order, pageNumber, pageSize);
+        }
+
+        public static Key count(PlayerFilter filter) {
+            return new Key("count", filter, null, 0, 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return pageNumber == key.pageNumber &&
+                    pageSize == key.pageSize &&
+                    kind.equals(key.kind) &&
+                    filter.equals(key.filter) &&
+                    order == key.order;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, filter, order, pageNumber, pageSize);
+        }
+    }
+}
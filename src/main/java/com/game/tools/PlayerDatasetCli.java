@@ -0,0 +1,169 @@
+package com.game.tools;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import org.flywaydb.core.Flyway;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PlayerDatasetCli {
+    private static final String USAGE = "Usage: PlayerDatasetCli --count n (--csv file | --jdbc url [--user u]"
+            + " [--password p] [--migrate true]) [--seed 1] [--races ELF:1,HUMAN:3] [--professions WARRIOR:2,...]"
+            + " [--experience uniform|skewed:k|normal:mean:sd|exponential:mean] [--birthdays 2000-01-01..2010-12-31]"
+            + " [--name-syllables 2..4] [--title-words 1..3] [--banned-ratio 0.1] [--level-base 50]"
+            + " [--batch-size 5000]";
+    private static final String INSERT = "INSERT INTO player"
+            + " (name, title, race, profession, birthday, banned, experience, level, untilNextLevel)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final long PROGRESS_EVERY = 1_000_000;
+
+    public static void main(String[] args) throws IOException, SQLException {
+        Map<String, String> options = new HashMap<>();
+        if (args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("count") || options.containsKey("csv") == options.containsKey("jdbc")) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        long count = Long.parseLong(options.get("count"));
+        PlayerGenerator generator;
+        try {
+            generator = generator(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        long started = System.currentTimeMillis();
+        if (options.containsKey("csv"))
+            writeCsv(generator, count, options.get("csv"));
+        else
+            load(generator, count, options.get("jdbc"), options.get("user"), options.get("password"),
+                    Integer.parseInt(options.getOrDefault("batch-size", "5000")),
+                    Boolean.parseBoolean(options.get("migrate")));
+        long elapsed = Math.max(System.currentTimeMillis() - started, 1);
+        System.out.printf("players=%d seconds=%.1f rows/s=%.0f%n", count, elapsed / 1000.0, count * 1000.0 / elapsed);
+    }
+
+    static PlayerGenerator generator(Map<String, String> options) {
+        PlayerGenerator generator = new PlayerGenerator(Long.parseLong(options.getOrDefault("seed", "1")));
+        if (options.containsKey("races"))
+            generator.races(options.get("races"));
+        if (options.containsKey("professions"))
+            generator.professions(options.get("professions"));
+        if (options.containsKey("experience"))
+            generator.experience(options.get("experience"));
+        if (options.containsKey("birthdays")) {
+            String[] range = options.get("birthdays").split("\\.\\.");
+            generator.birthdays(LocalDate.parse(range[0]), LocalDate.parse(range[1]));
+        }
+        if (options.containsKey("name-syllables")) {
+            String[] range = options.get("name-syllables").split("\\.\\.");
+            generator.nameSyllables(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+        }
+        if (options.containsKey("title-words")) {
+            String[] range = options.get("title-words").split("\\.\\.");
+            generator.titleWords(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+        }
+        if (options.containsKey("banned-ratio"))
+            generator.bannedRatio(Double.parseDouble(options.get("banned-ratio")));
+        if (options.containsKey("level-base"))
+            generator.levelCurve(LevelCurve.quadratic(Integer.parseInt(options.get("level-base")),
+                    Player.MAX_EXPERIENCE));
+        return generator;
+    }
+
+    /**
+     * Writes the CSV layout that POST /rest/players/import and PlayerImportCli accept.
+     */
+    static void writeCsv(PlayerGenerator generator, long count, String file) throws IOException {
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8),
+                1 << 16)) {
+            out.write("name,title,race,profession,birthday,banned,experience,level,untilNextLevel\n");
+            for (long i = 1; i <= count; i++) {
+                Player player = generator.next();
+                out.write(player.getName());
+                out.write(',');
+                out.write(player.getTitle());
+                out.write(',');
+                out.write(player.getRace().name());
+                out.write(',');
+                out.write(player.getProfession().name());
+                out.write(',');
+                out.write(player.getBirthday().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString());
+                out.write(',');
+                out.write(player.getBanned().toString());
+                out.write(',');
+                out.write(Integer.toString(player.getExperience()));
+                out.write(',');
+                out.write(Integer.toString(player.getLevel()));
+                out.write(',');
+                out.write(Integer.toString(player.getUntilNextLevel()));
+                out.write('\n');
+                progress(i);
+            }
+        }
+    }
+
+    /**
+     * Inserts straight into the player table in JDBC batches, committing each batch. For MySQL add
+     * rewriteBatchedStatements=true to the URL so that a batch travels as one multi-row INSERT.
+     */
+    static void load(PlayerGenerator generator, long count, String url, String user, String password,
+                     int batchSize, boolean migrate) throws SQLException {
+        if (migrate)
+            Flyway.configure().dataSource(url, user, password).baselineOnMigrate(true).baselineVersion("1").load()
+                    .migrate();
+        try (Connection connection = DriverManager.getConnection(url, user, password);
+             PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            connection.setAutoCommit(false);
+            for (long i = 1; i <= count; i++) {
+                Player player = generator.next();
+                statement.setString(1, player.getName());
+                statement.setString(2, player.getTitle());
+                statement.setString(3, player.getRace().name());
+                statement.setString(4, player.getProfession().name());
+                statement.setDate(5, new java.sql.Date(player.getBirthday().getTime()));
+                statement.setBoolean(6, player.getBanned());
+                statement.setInt(7, player.getExperience());
+                statement.setInt(8, player.getLevel());
+                statement.setInt(9, player.getUntilNextLevel());
+                statement.addBatch();
+                if (i % batchSize == 0 || i == count) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                progress(i);
+            }
+        }
+    }
+
+    private static void progress(long rows) {
+        if (rows % PROGRESS_EVERY == 0)
+            System.out.printf("players=%d%n", rows);
+    }
+}
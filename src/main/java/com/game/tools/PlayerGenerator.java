@@ -0,0 +1,209 @@
+package com.game.tools;
+
+import com.game.entity.LevelCurve;
+import com.game.entity.Player;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.SplittableRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reproducible stream of synthetic players: the same seed and settings always yield the same players in the same
+ * order, however many are drawn.
+ */
+public final class PlayerGenerator {
+    private static final String[] SYLLABLES = {
+            "ар", "эл", "ин", "то", "ан", "ум", "ра", "ос", "ни", "ка", "ль", "ор", "ми", "ту", "эс", "за", "го", "ве"
+    };
+    private static final String[] WORDS = {
+            "Темный", "Светлый", "Воин", "Маг", "Странник", "Охотник", "Мудрый", "Быстрый", "Тихий", "Серый",
+            "Огненный", "Ледяной", "Лесной", "Горный", "Вольный", "Старый"
+    };
+    private static final int NAME_LENGTH = 12;
+    private static final int TITLE_LENGTH = 30;
+
+    private final SplittableRandom random;
+    private final Race[] races = Race.values();
+    private final Profession[] professions = Profession.values();
+    private double[] raceWeights = uniform(races.length);
+    private double[] professionWeights = uniform(professions.length);
+    private ToIntFunction<SplittableRandom> experience = distribution("uniform");
+    private long firstBirthday = LocalDate.of(2000, 1, 1).toEpochDay();
+    private long lastBirthday = LocalDate.of(2010, 12, 31).toEpochDay();
+    private int minNameSyllables = 2;
+    private int maxNameSyllables = 4;
+    private int minTitleWords = 1;
+    private int maxTitleWords = 3;
+    private double bannedRatio = 0.1;
+    private LevelCurve levelCurve = LevelCurve.quadratic(50, Player.MAX_EXPERIENCE);
+
+    public PlayerGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Relative race weights as {@code RACE:weight,...}; races left out are never generated.
+     */
+    public PlayerGenerator races(String weights) {
+        this.raceWeights = weights(weights, races);
+        return this;
+    }
+
+    public PlayerGenerator professions(String weights) {
+        this.professionWeights = weights(weights, professions);
+        return this;
+    }
+
+    /**
+     * One of {@code uniform}, {@code skewed:k} (uniform raised to the power k, so most players are low level),
+     * {@code normal:mean:sd} or {@code exponential:mean}; values are clamped to the valid experience range.
+     */
+    public PlayerGenerator experience(String distribution) {
+        this.experience = distribution(distribution);
+        return this;
+    }
+
+    public PlayerGenerator birthdays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from))
+            throw new IllegalArgumentException("Birthday range ends before it starts");
+        this.firstBirthday = from.toEpochDay();
+        this.lastBirthday = to.toEpochDay();
+        return this;
+    }
+
+    public PlayerGenerator nameSyllables(int min, int max) {
+        if (min < 1 || max < min || max * 2 > NAME_LENGTH)
+            throw new IllegalArgumentException("Name syllables must be within 1.." + NAME_LENGTH / 2);
+        this.minNameSyllables = min;
+        this.maxNameSyllables = max;
+        return this;
+    }
+
+    public PlayerGenerator titleWords(int min, int max) {
+        if (min < 1 || max < min)
+            throw new IllegalArgumentException("Title words must be at least 1");
+        this.minTitleWords = min;
+        this.maxTitleWords = max;
+        return this;
+    }
+
+    public PlayerGenerator bannedRatio(double ratio) {
+        if (ratio < 0 || ratio > 1)
+            throw new IllegalArgumentException("Banned ratio must be within 0..1");
+        this.bannedRatio = ratio;
+        return this;
+    }
+
+    public PlayerGenerator levelCurve(LevelCurve levelCurve) {
+        this.levelCurve = levelCurve;
+        return this;
+    }
+
+    public Player next() {
+        Player player = new Player();
+        player.setName(name());
+        player.setTitle(title());
+        player.setRace(races[pick(raceWeights)]);
+        player.setProfession(professions[pick(professionWeights)]);
+        long epochDay = firstBirthday + random.nextLong(lastBirthday - firstBirthday + 1);
+        player.setBirthday(Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+        player.setBanned(random.nextDouble() < bannedRatio);
+        player.setExperience(Math.max(0, Math.min(Player.MAX_EXPERIENCE, experience.applyAsInt(random))));
+        player.calcLevel(levelCurve);
+        player.calcUntilNextLevel(levelCurve);
+        return player;
+    }
+
+    private String name() {
+        int syllables = minNameSyllables + random.nextInt(maxNameSyllables - minNameSyllables + 1);
+        StringBuilder name = new StringBuilder(NAME_LENGTH);
+        for (int i = 0; i < syllables; i++)
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private String title() {
+        int words = minTitleWords + random.nextInt(maxTitleWords - minTitleWords + 1);
+        StringBuilder title = new StringBuilder(TITLE_LENGTH);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (title.length() + word.length() + 1 > TITLE_LENGTH)
+                break;
+            if (title.length() > 0)
+                title.append(' ');
+            title.append(word);
+        }
+        return title.toString();
+    }
+
+    // Index of the first cumulative weight above a uniform draw, which skips zero-weight entries.
+    private int pick(double[] cumulative) {
+        double x = random.nextDouble() * cumulative[cumulative.length - 1];
+        int i = Arrays.binarySearch(cumulative, x);
+        if (i < 0)
+            return -i - 1;
+        while (cumulative[i] <= x)
+            i++;
+        return i;
+    }
+
+    private static double[] uniform(int size) {
+        double[] cumulative = new double[size];
+        for (int i = 0; i < size; i++)
+            cumulative[i] = i + 1;
+        return cumulative;
+    }
+
+    private static <E extends Enum<E>> double[] weights(String spec, E[] values) {
+        double[] weights = new double[values.length];
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2)
+                throw new IllegalArgumentException("Expected NAME:weight but got " + part);
+            E value = Enum.valueOf(values[0].getDeclaringClass(), pair[0].trim());
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Negative weight for " + value);
+            weights[value.ordinal()] = weight;
+        }
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            weights[i] = total;
+        }
+        if (total == 0)
+            throw new IllegalArgumentException("At least one weight must be positive: " + spec);
+        return weights;
+    }
+
+    private static ToIntFunction<SplittableRandom> distribution(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "uniform":
+                return random -> random.nextInt(Player.MAX_EXPERIENCE + 1);
+            case "skewed": {
+                double k = parts.length > 1 ? Double.parseDouble(parts[1]) : 2;
+                return random -> (int) (Math.pow(random.nextDouble(), k) * Player.MAX_EXPERIENCE);
+            }
+            case "normal": {
+                double mean = Double.parseDouble(parts[1]);
+                double sd = Double.parseDouble(parts[2]);
+                // Box-Muller; SplittableRandom has no nextGaussian on Java 8.
+                return random -> (int) (mean + sd * Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                        * Math.cos(2 * Math.PI * random.nextDouble()));
+            }
+            case "exponential": {
+                double mean = Double.parseDouble(parts[1]);
+                return random -> (int) (-mean * Math.log(1 - random.nextDouble()));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown experience distribution: " + spec);
+        }
+    }
+}
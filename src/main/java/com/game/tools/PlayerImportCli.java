@@ -0,0 +1,88 @@
+package com.game.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class PlayerImportCli {
+    private static final String USAGE = "Usage: PlayerImportCli <file.csv|file.ndjson> [--url http://localhost:8080]"
+            + " [--import-id id] [--format csv|ndjson]";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        String url = "http://localhost:8080";
+        String importId = file.getFileName().toString();
+        String format = importId.toLowerCase().endsWith(".csv") ? "csv" : "ndjson";
+        for (int i = 1; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[i + 1];
+                    break;
+                case "--import-id":
+                    importId = args[i + 1];
+                    break;
+                case "--format":
+                    format = args[i + 1];
+                    break;
+                default:
+                    System.err.println(USAGE);
+                    System.exit(2);
+            }
+        }
+        System.exit(run(file, url, importId, format) ? 0 : 1);
+    }
+
+    static boolean run(Path file, String url, String importId, String format) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + "/rest/players/import?importId="
+                + URLEncoder.encode(importId, "UTF-8")).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setChunkedStreamingMode(64 * 1024);
+        connection.setRequestProperty("Content-Type", "csv".equals(format)
+                ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        try (InputStream in = Files.newInputStream(file); OutputStream out = connection.getOutputStream()) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int read; (read = in.read(buffer)) >= 0; )
+                out.write(buffer, 0, read);
+        }
+
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            System.err.println("Import rejected: HTTP " + connection.getResponseCode());
+            return false;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode last = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                last = mapper.readTree(line);
+                System.out.printf("rows=%d imported=%d invalid=%d chunks=%d rows/s=%.0f%s%n",
+                        last.get("rows").asLong(), last.get("imported").asLong(), last.get("invalid").asLong(),
+                        last.get("chunks").asInt(), last.get("rowsPerSecond").asDouble(),
+                        last.get("done").asBoolean() ? " done" : "");
+            }
+        }
+        if (last == null || !last.get("done").asBoolean()) {
+            String error = last == null || last.get("error").isNull() ? "connection closed" : last.get("error").asText();
+            System.err.println("Import stopped: " + error + ". Run again with --import-id " + importId + " to resume.");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,13 @@
+-- Equality filters and the search facets: race, race + profession, race + profession + banned.
+CREATE INDEX idx_player_race_profession_banned ON player (race, profession, banned);
+
+-- One index per PlayerOrder field, ending in id so that ORDER BY field, id and the keyset cursor
+-- (field > ? OR field = ? AND id > ?) are served in index order without a filesort.
+CREATE INDEX idx_player_name_id ON player (name, id);
+CREATE INDEX idx_player_experience_id ON player (experience, id);
+CREATE INDEX idx_player_birthday_id ON player (birthday, id);
+CREATE INDEX idx_player_level_id ON player (level, id);
+
+-- Profession and banned on their own, e.g. profession=WARRIOR or banned=true.
+CREATE INDEX idx_player_profession_level ON player (profession, level);
+CREATE INDEX idx_player_banned_experience ON player (banned, experience);
@@ -0,0 +1,2 @@
+-- Row version for optimistic locking and ETags; every write path bumps it.
+ALTER TABLE player ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
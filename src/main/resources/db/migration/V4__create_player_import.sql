@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS player_import
+(
+    id            VARCHAR(100) NOT NULL,
+    rowsCommitted BIGINT(20)   NOT NULL,
+    updated       DATETIME     NULL,
+    PRIMARY KEY (id)
+);
@@ -1,7 +1,8 @@
 function loadContent(root, suffix, currentPage) {
 
-    let objects = JSON.parse(Get(root + "/rest/players" + suffix).responseText);
-    let playersCount = Get(root + "/rest/players/count" + suffix).responseText;
+    let result = JSON.parse(Get(root + "/rest/players/search" + suffix).responseText);
+    let objects = result.players;
+    let playersCount = result.count;
     document.getElementById("count").innerText = "Players found: " + playersCount;
     let table = document.getElementById("mainTable");
     table.innerHTML = "";
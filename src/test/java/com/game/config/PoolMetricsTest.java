@@ -0,0 +1,90 @@
+package com.game.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class PoolMetricsTest {
+
+    private final PoolMetrics poolMetrics = new PoolMetrics();
+    private HikariDataSource dataSource;
+
+    @Before
+    public void createPool() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("test");
+        config.setJdbcUrl("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        config.setMinimumIdle(1);
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(250);
+        config.setMetricsTrackerFactory(poolMetrics);
+        dataSource = new HikariDataSource(config);
+    }
+
+    @After
+    public void closePool() {
+        dataSource.close();
+    }
+
+    //test1
+    @Test
+    public void borrowAndReturnAreCounted() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.createStatement().execute("SELECT 1");
+            }
+        }
+
+        Map<String, Object> stats = poolMetrics.getStats();
+        assertEquals("test", stats.get("pool"));
+        assertEquals(3L, stats.get("acquired"));
+        assertEquals(0L, stats.get("timeouts"));
+        assertEquals(1, stats.get("maxSize"));
+    }
+
+    //test2
+    @Test
+    public void exhaustedPoolCountsTimeout() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertNotNull(connection);
+            try {
+                dataSource.getConnection().close();
+                fail("Пул из одного соединения должен отказать во втором соединении.");
+            } catch (SQLException expected) {
+                // connection-timeout elapsed
+            }
+        }
+
+        Map<String, Object> stats = poolMetrics.getStats();
+        assertEquals(1L, stats.get("timeouts"));
+    }
+
+    //test3
+    @Test
+    public void meterBinderReadsSameCounters() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        poolMetrics.bindTo(registry);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertNotNull(connection);
+            assertEquals(1.0, registry.get("db.pool.active").gauge().value(), 0.0);
+        }
+
+        assertEquals(1.0, registry.get("db.pool.max").gauge().value(), 0.0);
+        assertEquals(1.0, registry.get("db.pool.acquire").functionTimer().count(), 0.0);
+        assertEquals((double) poolMetrics.getStats().get("averageWaitMillis"),
+                registry.get("db.pool.acquire").functionTimer().mean(TimeUnit.MILLISECONDS), 1e-9);
+    }
+}
@@ -3,6 +3,8 @@ package com.game.controller;
 import com.game.config.AppConfig;
 import com.game.config.MyWebAppInit;
 import com.game.config.WebConfig;
+import com.game.repository.Leaderboard;
+import com.game.repository.PlayerStats;
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +18,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import javax.persistence.EntityManagerFactory;
+
 @RunWith(SpringJUnit4ClassRunner.class)
 @ActiveProfiles("dev")
 @ContextConfiguration(classes = {AppConfig.class, MyWebAppInit.class, WebConfig.class})
@@ -33,6 +37,9 @@ public abstract class AbstractTest {
 
     @Before
     public void setup() {
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        context.getBean(PlayerStats.class).reconcile();
+        context.getBean(Leaderboard.class).reload();
         mockMvc = MockMvcBuilders
                 .webAppContextSetup(context)
                 .addFilter(((request, response, chain) -> {
@@ -0,0 +1,80 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "game.bulk.batch-size=2")
+public class BulkCreateTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void bulkCreateFromArray() throws Exception {
+        JsonNode report = bulk(MediaType.APPLICATION_JSON_VALUE, "[" + TestsHelper.NORMAL_JSON + ","
+                + TestsHelper.EMPTY_NAME_JSON + "," + TestsHelper.BANNED_TRUE_JSON + "]");
+
+        assertEquals("Не правильное количество созданных игроков.", 2, report.get("created").asInt());
+        assertEquals("Не правильное количество отклоненных игроков.", 1, report.get("invalid").asInt());
+        assertEquals("Не правильный статус строки 0.", "CREATED", row(report, 0).get("status").asText());
+        assertEquals("Не правильный id строки 0.", 41, row(report, 0).get("id").asInt());
+        assertEquals("Не правильный статус строки 1.", "INVALID", row(report, 1).get("status").asText());
+        assertEquals("Не правильный id строки 2.", 42, row(report, 2).get("id").asInt());
+
+        String content = mockMvc.perform(get("/rest/players/42"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest actual = mapper.readValue(content, PlayerInfoTest.class);
+        assertEquals("Не правильная раса пакетно созданного игрока.", Race.DWARF, actual.race);
+        assertEquals("Не правильная профессия пакетно созданного игрока.", Profession.CLERIC, actual.profession);
+        assertEquals("Не правильный banned пакетно созданного игрока.", true, actual.banned);
+        assertEquals("Не правильный level пакетно созданного игрока.", 35, actual.level.intValue());
+        assertEquals("Не правильный untilNextLevel пакетно созданного игрока.", 2614, actual.untilNextLevel.intValue());
+    }
+
+    //test2
+    @Test
+    public void bulkCreateFromNdjsonAcrossBatches() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++)
+            body.append(TestsHelper.NORMAL_JSON).append('\n');
+        body.append("{\"name\": \"Орк\", \"race\": \"ROBOT\"}\n");
+        body.append(TestsHelper.NORMAL_JSON).append('\n');
+
+        JsonNode report = bulk(GameController.NDJSON_VALUE, body.toString());
+
+        assertEquals("Не правильное количество созданных игроков.", 6, report.get("created").asInt());
+        assertEquals("Не правильное количество отклоненных игроков.", 1, report.get("invalid").asInt());
+        assertEquals("Не правильный статус строки 5.", "INVALID", row(report, 5).get("status").asText());
+        assertEquals("Не правильный id строки 6.", 46, row(report, 6).get("id").asInt());
+        String count = mockMvc.perform(get("/rest/players/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Не правильное количество игроков после пакетного создания.", 46, Integer.parseInt(count));
+    }
+
+    private JsonNode bulk(String contentType, String body) throws Exception {
+        String content = mockMvc.perform(post("/rest/players/bulk")
+                .contentType(contentType)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+
+    private static JsonNode row(JsonNode report, int row) {
+        return report.get("rows").get(row);
+    }
+}
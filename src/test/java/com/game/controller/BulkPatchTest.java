@@ -0,0 +1,97 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkPatchTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void patchBansAllMatchingPlayers() throws Exception {
+        int elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()).size();
+
+        int updated = patch("/rest/players/bulk-patch?race=ELF", "{\"banned\": true}");
+
+        assertEquals("Не правильное количество обновленных игроков.", elves, updated);
+        assertEquals("Не все игроки забанены.", elves, getCount("/rest/players/count?race=ELF&banned=true"));
+    }
+
+    //test2
+    @Test
+    public void patchGrantsExperienceAndRecomputesLevel() throws Exception {
+        List<PlayerInfoTest> hobbits = testsHelper.getPlayerInfosByRace(Race.HOBBIT, testsHelper.getAllPlayers());
+
+        int updated = patch("/rest/players/bulk-patch?race=HOBBIT", "{\"addExperience\": 12345, \"title\": \"Счастливчик\"}");
+
+        assertEquals("Не правильное количество обновленных игроков.", hobbits.size(), updated);
+        List<PlayerInfoTest> actual = getList("/rest/players?race=HOBBIT&pageSize=100");
+        for (int i = 0; i < hobbits.size(); i++) {
+            int experience = hobbits.get(i).experience + 12345;
+            int level = (int) ((Math.sqrt(2500 + 200 * experience) - 50) / 100);
+            assertEquals("Не правильный опыт после начисления.", experience, actual.get(i).experience.intValue());
+            assertEquals("Не правильный уровень после начисления.", level, actual.get(i).level.intValue());
+            assertEquals("Не правильный untilNextLevel после начисления.", 50 * (level + 1) * (level + 2) - experience,
+                    actual.get(i).untilNextLevel.intValue());
+            assertEquals("Не правильный title после обновления.", "Счастливчик", actual.get(i).title);
+        }
+    }
+
+    //test3
+    @Test
+    public void patchClampsExperience() throws Exception {
+        patch("/rest/players/bulk-patch?name=Ниус", "{\"addExperience\": 20000000}");
+
+        PlayerInfoTest actual = getList("/rest/players?name=Ниус").get(0);
+        assertEquals("Опыт не должен превышать 10000000.", 10_000_000, actual.experience.intValue());
+        assertEquals("Не правильный уровень при максимальном опыте.", 446, actual.level.intValue());
+    }
+
+    //test4
+    @Test
+    public void emptyPatchIsRejected() throws Exception {
+        mockMvc.perform(post("/rest/players/bulk-patch?race=ELF")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int patch(String url, String body) throws Exception {
+        String content = mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+
+    private List<PlayerInfoTest> getList(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference);
+    }
+
+    private int getCount(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+}
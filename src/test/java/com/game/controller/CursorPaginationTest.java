@@ -0,0 +1,93 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CursorPaginationTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void cursorWalkMatchesPageNumberWalkForEveryOrder() throws Exception {
+        for (PlayerOrder order : PlayerOrder.values()) {
+            List<PlayerInfoTest> byPageNumber = new ArrayList<>();
+            for (int page = 0; ; page++) {
+                List<PlayerInfoTest> players = mapper.readValue(fetch("/rest/players?pageSize=7&order=" + order
+                        + "&pageNumber=" + page).getContentAsString(), typeReference);
+                if (players.isEmpty())
+                    break;
+                byPageNumber.addAll(players);
+            }
+
+            List<PlayerInfoTest> byCursor = new ArrayList<>();
+            String cursor = "";
+            do {
+                MockHttpServletResponse response = fetch("/rest/players?pageSize=7&order=" + order + "&cursor=" + cursor);
+                byCursor.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+                cursor = response.getHeader(GameController.NEXT_CURSOR_HEADER);
+            } while (cursor != null);
+
+            assertEquals("Постраничный обход по курсору не совпадает с обходом по pageNumber для order=" + order,
+                    byPageNumber, byCursor);
+        }
+    }
+
+    //test2
+    @Test
+    public void cursorWalkWithFilter() throws Exception {
+        List<PlayerInfoTest> byCursor = new ArrayList<>();
+        String cursor = "";
+        do {
+            MockHttpServletResponse response = fetch("/rest/players?name=а&pageSize=2&cursor=" + cursor);
+            byCursor.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+            cursor = response.getHeader(GameController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        List<PlayerInfoTest> expected = mapper.readValue(
+                fetch("/rest/players?name=а&pageSize=100").getContentAsString(), typeReference);
+        assertEquals("Постраничный обход по курсору с фильтром name возвращает не правильный результат.",
+                expected, byCursor);
+    }
+
+    //test3
+    @Test
+    public void lastPageHasNoCursor() throws Exception {
+        MockHttpServletResponse response = fetch("/rest/players?pageSize=100");
+        assertNull(response.getHeader(GameController.NEXT_CURSOR_HEADER));
+    }
+
+    //test4
+    @Test
+    public void invalidCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/rest/players?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test5
+    @Test
+    public void cursorOfOtherOrderIsBadRequest() throws Exception {
+        String cursor = fetch("/rest/players?order=LEVEL").getHeader(GameController.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/rest/players?order=NAME&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse fetch(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,157 @@
+package com.game.controller;
+
+import com.game.entity.Player;
+import com.game.service.GameService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ETagTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void singlePlayerNotModifiedWithoutLoadingEntity() throws Exception {
+        String etag = etag("/rest/players/5");
+
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        long loads = statistics.getEntityLoadCount();
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/5")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+
+        assertEquals("Ответ 304 не должен содержать тело.", 0, response.getContentLength());
+        assertEquals("Ответ 304 должен повторять ETag.", etag, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("Для ответа 304 не должна загружаться сущность.", loads, statistics.getEntityLoadCount());
+    }
+
+    //test2
+    @Test
+    public void updateChangesPlayerETag() throws Exception {
+        String etag = etag("/rest/players/5");
+
+        mockMvc.perform(post("/rest/players/5")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Новый титул\"}"))
+                .andExpect(status().isOk());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/5")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertTrue("После обновления ETag должен измениться.", !etag.equals(response.getHeader(HttpHeaders.ETAG)));
+        assertEquals("ETag должен передаваться один раз.", 1, response.getHeaders(HttpHeaders.ETAG).size());
+        assertTrue("Тело должно содержать новый титул.", response.getContentAsString().contains("Новый титул"));
+    }
+
+    //test3
+    @Test
+    public void listPageNotModifiedUntilBulkPatch() throws Exception {
+        String url = "/rest/players?race=ELF&pageSize=10";
+        String etag = etag(url);
+
+        MockHttpServletResponse response = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertEquals("Ответ 304 не должен содержать тело.", 0, response.getContentAsByteArray().length);
+
+        mockMvc.perform(post("/rest/players/bulk-patch?race=ELF")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": true}"))
+                .andExpect(status().isOk());
+
+        response = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertTrue("После массового обновления ETag страницы должен измениться.",
+                !etag.equals(response.getHeader(HttpHeaders.ETAG)));
+    }
+
+    //test4
+    @Test
+    public void representationsHaveDistinctETags() throws Exception {
+        String json = mockMvc.perform(get("/rest/players/5").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MockHttpServletResponse smile = mockMvc.perform(get("/rest/players/5").accept(GameController.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertTrue("JSON и Smile должны иметь разные ETag.", !json.equals(smile.getHeader(HttpHeaders.ETAG)));
+        assertEquals("Ответ должен зависеть от Accept.", HttpHeaders.ACCEPT, smile.getHeader(HttpHeaders.VARY));
+        mockMvc.perform(get("/rest/players/5")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, smile.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk());
+    }
+
+    //test5
+    @Test
+    public void updateOfStaleEntityGetsNewerVersion() throws Exception {
+        GameService service = context.getBean(GameService.class);
+        String[] patched = new String[1];
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            service.getPlayer(5L);
+            Thread thread = new Thread(() -> {
+                try {
+                    mockMvc.perform(post("/rest/players/bulk-patch?name=Элеонора")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"banned\": false}"))
+                            .andExpect(status().isOk());
+                    patched[0] = etag("/rest/players/5");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            Player player = new Player();
+            player.setTitle("Новый титул");
+            return service.update(5L, player);
+        });
+        assertNotNull("Массовое обновление не выполнено.", patched[0]);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/players/5")
+                .header(HttpHeaders.IF_NONE_MATCH, patched[0]))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertTrue("Обновление после массового обновления должно получить новый ETag.",
+                !patched[0].equals(response.getHeader(HttpHeaders.ETAG)));
+        assertTrue("Тело должно содержать новый титул.", response.getContentAsString().contains("Новый титул"));
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            long version = entityManager.createQuery("select p.version from Player p where p.id = 5", Long.class)
+                    .getSingleResult();
+            assertEquals("ETag должен соответствовать версии в базе.", "\"5-" + version + "\"",
+                    response.getHeader(HttpHeaders.ETAG));
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private String etag(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull("Не указан ETag: " + url, etag);
+        return etag;
+    }
+}
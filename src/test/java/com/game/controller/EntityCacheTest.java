@@ -0,0 +1,70 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.entity.Player;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EntityCacheTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void repeatedGetIsServedFromRegion() throws Exception {
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+        long hits = region().get("hits").asLong();
+
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+
+        JsonNode region = region();
+        assertEquals("Повторный запрос игрока должен обслуживаться из кэша второго уровня.", hits + 1, region.get("hits").asLong());
+        assertTrue("Не указан процент попаданий.", region.get("hitRatio").asDouble() > 0);
+        assertEquals("Не правильная политика вытеснения.", "LRU", region.get("eviction").asText());
+    }
+
+    //test2
+    @Test
+    public void updateIsVisibleThroughRegion() throws Exception {
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/players/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Амарфия\", \"experience\": 1000}"))
+                .andExpect(status().isOk());
+
+        String content = mockMvc.perform(get("/rest/players/3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PlayerInfoTest actual = mapper.readValue(content, PlayerInfoTest.class);
+        assertEquals("Кэш второго уровня возвращает старое имя после обновления.", "Амарфия", actual.name);
+        assertEquals("Кэш второго уровня возвращает старый опыт после обновления.", 1000, actual.experience.intValue());
+        assertEquals("Кэш второго уровня возвращает старый уровень после обновления.", 4, actual.level.intValue());
+    }
+
+    //test3
+    @Test
+    public void deleteIsVisibleThroughRegion() throws Exception {
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/rest/players/3")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players/3")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode region() throws Exception {
+        String content = mockMvc.perform(get("/rest/admin/entity-cache"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content).get(Player.CACHE_REGION);
+    }
+}
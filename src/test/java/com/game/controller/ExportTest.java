@@ -0,0 +1,77 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportNdjsonMatchesAllPlayers() throws Exception {
+        String content = export("/rest/players/export");
+
+        List<PlayerInfoTest> actual = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            assertTrue("Строка NDJSON должна начинаться с объекта: " + line, line.startsWith("{"));
+            actual.add(mapper.readValue(line, PlayerInfoTest.class));
+        }
+        assertEquals("Экспорт возвращает не правильный результат.", testsHelper.getAllPlayers(), actual);
+    }
+
+    //test2
+    @Test
+    public void exportCsvWithFilter() throws Exception {
+        String[] lines = export("/rest/players/export?format=csv&race=ELF").split("\n");
+        List<PlayerInfoTest> elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers());
+
+        assertEquals("Не правильный заголовок CSV.",
+                "id,name,title,race,profession,birthday,banned,experience,level,untilNextLevel", lines[0]);
+        assertEquals("Не правильное количество строк CSV.", elves.size() + 1, lines.length);
+        PlayerInfoTest first = elves.get(0);
+        assertEquals("Не правильная строка CSV.", first.id + "," + first.name + "," + first.title + ",ELF,"
+                + first.profession + "," + first.birthday + "," + first.banned + "," + first.experience + ","
+                + first.level + "," + first.untilNextLevel, lines[1]);
+    }
+
+    //test3
+    @Test
+    public void exportCsvQuotesSpecialCharacters() throws Exception {
+        mockMvc.perform(post("/rest/players/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Тихий, \\\"быстрый\\\"\"}"))
+                .andExpect(status().isOk());
+
+        String[] lines = export("/rest/players/export?format=csv&name=Ниус").split("\n");
+
+        assertTrue("Не правильное экранирование CSV.", lines[1].startsWith("1,Ниус,\"Тихий, \"\"быстрый\"\"\",HOBBIT,"));
+    }
+
+    //test4
+    @Test
+    public void exportUnknownFormat() throws Exception {
+        mockMvc.perform(get("/rest/players/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
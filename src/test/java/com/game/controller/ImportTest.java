@@ -0,0 +1,86 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "game.import.chunk-size=2")
+public class ImportTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void importNdjsonInChunks() throws Exception {
+        String body = TestsHelper.NORMAL_JSON + "\n" + TestsHelper.EMPTY_NAME_JSON + "\n"
+                + TestsHelper.NORMAL_JSON + "\n" + TestsHelper.NORMAL_JSON + "\n" + TestsHelper.NORMAL_JSON + "\n";
+
+        String[] lines = importPlayers("ndjson-1", GameController.NDJSON_VALUE, body);
+
+        JsonNode last = mapper.readTree(lines[lines.length - 1]);
+        assertTrue("Импорт не завершен.", last.get("done").asBoolean());
+        assertEquals("Не правильное количество импортированных игроков.", 4, last.get("imported").asInt());
+        assertEquals("Не правильное количество отклоненных строк.", 1, last.get("invalid").asInt());
+        assertEquals("Не правильное количество строк прогресса.", 3, lines.length);
+        assertEquals("Не правильное количество игроков после импорта.", 44, getCount("/rest/players/count"));
+    }
+
+    //test2
+    @Test
+    public void importCsvRoundTripsExport() throws Exception {
+        int elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()).size();
+        String csv = mockMvc.perform(get("/rest/players/export?format=csv&race=ELF"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = importPlayers("elves.csv", ImportController.CSV_VALUE, csv);
+
+        JsonNode last = mapper.readTree(lines[lines.length - 1]);
+        assertEquals("Не правильное количество импортированных игроков.", elves, last.get("imported").asInt());
+        assertEquals("Не правильное количество ELF после импорта.", 2 * elves, getCount("/rest/players/count?race=ELF"));
+    }
+
+    //test3
+    @Test
+    public void importResumesFromLastCommittedChunk() throws Exception {
+        String valid = TestsHelper.NORMAL_JSON + "\n";
+        String broken = valid + valid + valid + "{\"name\": \n";
+
+        String[] lines = importPlayers("resume", GameController.NDJSON_VALUE, broken);
+        JsonNode failed = mapper.readTree(lines[lines.length - 1]);
+        assertTrue("Импорт должен завершиться ошибкой.", !failed.get("done").asBoolean() && !failed.get("error").isNull());
+        assertEquals("Не правильная позиция последнего сохраненного блока.", 2, failed.get("rows").asInt());
+        assertEquals("Не правильное количество игроков после сбоя.", 42, getCount("/rest/players/count"));
+
+        lines = importPlayers("resume", GameController.NDJSON_VALUE, valid + valid + valid + valid);
+        JsonNode resumed = mapper.readTree(lines[lines.length - 1]);
+        assertEquals("Импорт должен продолжиться с сохраненной позиции.", 2, resumed.get("resumedFrom").asInt());
+        assertEquals("Не правильное количество импортированных игроков после возобновления.", 2, resumed.get("imported").asInt());
+        assertEquals("Не правильное количество игроков после возобновления.", 44, getCount("/rest/players/count"));
+    }
+
+    private String[] importPlayers(String importId, String contentType, String body) throws Exception {
+        return mockMvc.perform(post("/rest/players/import?importId=" + importId)
+                .contentType(contentType)
+                .content(body.getBytes("UTF-8")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+    }
+
+    private int getCount(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+}
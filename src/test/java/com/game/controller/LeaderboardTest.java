@@ -0,0 +1,98 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LeaderboardTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void topPlayersOrderedByExperience() throws Exception {
+        List<PlayerInfoTest> expected = ranked(testsHelper.getAllPlayers());
+
+        JsonNode top = read("/rest/leaderboard?limit=10");
+
+        assertEquals("Не правильный размер таблицы лидеров.", 10, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals("Не правильное место.", i + 1, top.get(i).get("rank").asInt());
+            assertEquals("Не правильный игрок на месте " + (i + 1) + ".", expected.get(i).id.longValue(),
+                    top.get(i).get("player").get("id").asLong());
+        }
+    }
+
+    //test2
+    @Test
+    public void rankWithinRacePartition() throws Exception {
+        List<PlayerInfoTest> elves = ranked(testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()));
+        PlayerInfoTest last = elves.get(elves.size() - 1);
+
+        JsonNode entry = read("/rest/leaderboard/players/" + last.id + "?race=ELF");
+
+        assertEquals("Не правильное место среди эльфов.", elves.size(), entry.get("rank").asInt());
+        mockMvc.perform(get("/rest/leaderboard/players/" + last.id + "?race=ORC"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test3
+    @Test
+    public void playersAroundRank() throws Exception {
+        List<PlayerInfoTest> expected = ranked(testsHelper.getAllPlayers());
+
+        JsonNode around = read("/rest/leaderboard/around?rank=2&radius=3");
+
+        assertEquals("Не правильное количество соседей.", 5, around.size());
+        assertEquals("Не правильное первое место.", 1, around.get(0).get("rank").asInt());
+        assertEquals("Не правильный игрок на месте 5.", expected.get(4).id.longValue(),
+                around.get(4).get("player").get("id").asLong());
+    }
+
+    //test4
+    @Test
+    public void experienceChangesMovePlayers() throws Exception {
+        read("/rest/leaderboard?limit=1");
+
+        mockMvc.perform(post("/rest/players/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 10000000}"))
+                .andExpect(status().isOk());
+        assertEquals("Игрок не поднялся на первое место.", 3L,
+                read("/rest/leaderboard?limit=1").get(0).get("player").get("id").asLong());
+
+        mockMvc.perform(delete("/rest/players/3")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/leaderboard/players/3")).andExpect(status().isNotFound());
+        assertEquals("Удаленный игрок остался в таблице лидеров.", ranked(testsHelper.getAllPlayers()).get(0).id.longValue(),
+                read("/rest/leaderboard?limit=1").get(0).get("player").get("id").asLong());
+    }
+
+    private JsonNode read(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+
+    private static List<PlayerInfoTest> ranked(List<PlayerInfoTest> players) {
+        List<PlayerInfoTest> ranked = new ArrayList<>(players);
+        ranked.sort(Comparator.<PlayerInfoTest>comparingInt(player -> -player.experience)
+                .thenComparingLong(player -> player.id));
+        return ranked;
+    }
+}
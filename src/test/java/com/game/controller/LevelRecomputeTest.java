@@ -0,0 +1,131 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.entity.LevelCurve;
+import com.game.repository.PlayerPatchEvent;
+import com.game.service.LevelRecomputeJob;
+import org.junit.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "game.level.thresholds=0, 1000, 10000, 100000, 1000000",
+        "game.levels.recompute.chunk-size=7"
+})
+public class LevelRecomputeTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void recomputeAppliesNewCurveToAllPlayers() throws Exception {
+        String etag = mockMvc.perform(get("/rest/players/1")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/rest/admin/levels/recompute")).andExpect(status().isAccepted());
+        context.getBean(LevelRecomputeJob.class).getCompletion().get(10, TimeUnit.SECONDS);
+
+        LevelCurve curve = context.getBean(LevelCurve.class);
+        List<PlayerInfoTest> players = getList("/rest/players?pageSize=100");
+        assertEquals("Не правильное количество игроков.", 40, players.size());
+        for (PlayerInfoTest player : players) {
+            assertEquals("Не правильный уровень после пересчета.", curve.getLevel(player.experience),
+                    player.level.intValue());
+            assertEquals("Не правильный untilNextLevel после пересчета.", curve.getUntilNextLevel(player.experience),
+                    player.untilNextLevel.intValue());
+        }
+        PlayerInfoTest cached = getPlayer(1);
+        assertEquals("Кэш второго уровня возвращает старый уровень после пересчета.", 2, cached.level.intValue());
+        mockMvc.perform(get("/rest/players/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        JsonNode status = mapper.readTree(mockMvc.perform(get("/rest/admin/levels/recompute"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Пересчет не должен выполняться после завершения.", false, status.get("running").asBoolean());
+        assertEquals("Не правильное количество пересчитанных игроков.", 40, status.get("updated").asInt());
+    }
+
+    //test2
+    @Test
+    public void updateUsesConfiguredCurve() throws Exception {
+        mockMvc.perform(post("/rest/players/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 50000}"))
+                .andExpect(status().isOk());
+
+        PlayerInfoTest actual = getPlayer(3);
+        assertEquals("Не правильный уровень после обновления.", 2, actual.level.intValue());
+        assertEquals("Не правильный untilNextLevel после обновления.", 50000, actual.untilNextLevel.intValue());
+    }
+
+    //test3
+    @Test
+    public void bulkPatchUsesConfiguredCurve() throws Exception {
+        mockMvc.perform(post("/rest/players/bulk-patch?name=Ниус")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addExperience\": 1000000}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/bulk-patch?name=Эззэссэль")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"addExperience\": 200}"))
+                .andExpect(status().isOk());
+
+        PlayerInfoTest max = getList("/rest/players?name=Ниус").get(0);
+        assertEquals("Не правильный уровень на последнем пороге.", 4, max.level.intValue());
+        assertEquals("Не правильный untilNextLevel на последнем пороге.", 0, max.untilNextLevel.intValue());
+        PlayerInfoTest low = getList("/rest/players?name=Эззэссэль").get(0);
+        assertEquals("Не правильный уровень после начисления.", 1, low.level.intValue());
+        assertEquals("Не правильный untilNextLevel после начисления.", 8996, low.untilNextLevel.intValue());
+    }
+
+    //test4
+    @Test
+    public void recomputeInvalidatesOnceForAllChunks() throws Exception {
+        List<PlayerPatchEvent> events = new CopyOnWriteArrayList<>();
+        ((ConfigurableApplicationContext) context).addApplicationListener((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof PayloadApplicationEvent
+                    && ((PayloadApplicationEvent<?>) event).getPayload() instanceof PlayerPatchEvent)
+                events.add((PlayerPatchEvent) ((PayloadApplicationEvent<?>) event).getPayload());
+        });
+
+        mockMvc.perform(post("/rest/admin/levels/recompute")).andExpect(status().isAccepted());
+        context.getBean(LevelRecomputeJob.class).getCompletion().get(10, TimeUnit.SECONDS);
+
+        assertEquals("Пересчет должен публиковать одно событие на весь проход, а не на каждую порцию.", 1, events.size());
+        assertEquals("Не правильное количество пересчитанных игроков в событии.", 40, events.get(0).getUpdated());
+    }
+
+    private PlayerInfoTest getPlayer(long id) throws Exception {
+        String content = mockMvc.perform(get("/rest/players/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, PlayerInfoTest.class);
+    }
+
+    private List<PlayerInfoTest> getList(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference);
+    }
+}
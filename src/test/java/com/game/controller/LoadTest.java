@@ -0,0 +1,116 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.LoadGenerator;
+import com.game.entity.Race;
+import com.game.tools.PlayerGenerator;
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Paths;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The full load run is skipped unless {@code -Dload.enabled=true} is given, e.g.
+ * {@code mvn test -Dtest=LoadTest -Dload.enabled=true -Dload.rate=500 -Dload.seconds=60}.
+ * Other knobs: {@code load.threads}, {@code load.warmup-seconds}, {@code load.players}, {@code load.seed},
+ * {@code load.mix} (e.g. {@code search:40,get:30,create:10,update:15,delete:5}) and {@code load.report}.
+ */
+public class LoadTest extends AbstractTest {
+    private static final String[] NAME_FRAGMENTS = {"ар", "эл", "ин", "ка", "ор"};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong maxId = new AtomicLong();
+    private final Deque<Long> created = new ConcurrentLinkedDeque<>();
+    private PlayerGenerator players;
+
+    //test1
+    @Test
+    public void shortRunCoversEveryEndpoint() throws Exception {
+        LoadGenerator.Report report = generator(100).rate(200).threads(4).run(0, 1);
+
+        for (String endpoint : new String[]{"search", "get", "create", "update", "delete"}) {
+            assertTrue("Нет запросов к " + endpoint + ".", report.getHistogram(endpoint).getTotalCount() > 0);
+            assertEquals("Ошибки сервера при запросах к " + endpoint + ".", 0L, report.getErrors(endpoint));
+        }
+    }
+
+    //test2
+    @Test
+    public void fullRun() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("load.enabled"));
+
+        LoadGenerator generator = generator(Integer.getInteger("load.players", 10_000))
+                .rate(Integer.getInteger("load.rate", 200))
+                .threads(Integer.getInteger("load.threads", 16))
+                .seed(Long.getLong("load.seed", 42));
+        String mix = System.getProperty("load.mix");
+        if (mix != null)
+            generator.mix(mix);
+        LoadGenerator.Report report = generator.run(Integer.getInteger("load.warmup-seconds", 5),
+                Integer.getInteger("load.seconds", 30));
+
+        report.print(System.out);
+        report.write(Paths.get(System.getProperty("load.report", "target/load")));
+    }
+
+    private LoadGenerator generator(int preload) throws Exception {
+        players = new PlayerGenerator(Long.getLong("load.seed", 42)).bannedRatio(0.1);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < preload; i++)
+            body.append(mapper.writeValueAsString(players.next())).append('\n');
+        mockMvc.perform(post("/rest/players/bulk")
+                .contentType(GameController.NDJSON_VALUE)
+                .content(body.toString()))
+                .andExpect(status().isOk());
+        maxId.set(Long.parseLong(mockMvc.perform(get("/rest/players/count"))
+                .andReturn().getResponse().getContentAsString()));
+
+        return new LoadGenerator(mockMvc)
+                .endpoint("search", 40, (mvc, random) -> mvc.perform(get("/rest/players/search")
+                        .param("race", Race.values()[random.nextInt(Race.values().length)].name())
+                        .param("name", NAME_FRAGMENTS[random.nextInt(NAME_FRAGMENTS.length)])
+                        .param("order", random.nextBoolean() ? "EXPERIENCE" : "ID")
+                        .param("pageNumber", String.valueOf(random.nextInt(3)))
+                        .param("pageSize", "10")).andReturn())
+                .endpoint("get", 30, (mvc, random) ->
+                        mvc.perform(get("/rest/players/" + (1 + random.nextLong(maxId.get())))).andReturn())
+                .endpoint("create", 10, (mvc, random) -> {
+                    MvcResult result = mvc.perform(post("/rest/players")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(nextPlayer())).andReturn();
+                    if (result.getResponse().getStatus() == 200) {
+                        long id = mapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+                        created.add(id);
+                        maxId.accumulateAndGet(id, Math::max);
+                    }
+                    return result;
+                })
+                .endpoint("update", 15, (mvc, random) -> mvc.perform(post("/rest/players/" + (1 + random.nextLong(maxId.get())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"experience\": " + random.nextInt(1_000_000) + "}")).andReturn())
+                .endpoint("delete", 5, (mvc, random) -> {
+                    // Only players created under load are deleted so reads keep hitting a stable population;
+                    // with none left the request exercises the not-found path.
+                    Long id = created.poll();
+                    return mvc.perform(delete("/rest/players/" + (id != null ? id : maxId.get() + 1))).andReturn();
+                });
+    }
+
+    private String nextPlayer() throws Exception {
+        synchronized (players) {
+            return mapper.writeValueAsString(players.next());
+        }
+    }
+}
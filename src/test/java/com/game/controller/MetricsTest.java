@@ -0,0 +1,87 @@
+package com.game.controller;
+
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void endpointLatencyIsExposedPerUriPattern() throws Exception {
+        String requests = "http_server_requests_seconds_count{";
+        String method = "method=\"GET\"";
+        String getPlayer = "uri=\"/rest/players/{id}\"";
+        double before = value(scrape(), requests, method, getPlayer, "status=\"200\"");
+
+        mockMvc.perform(get("/rest/players/5")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/6")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/0")).andExpect(status().isBadRequest());
+
+        String metrics = scrape();
+        assertEquals("Не правильное количество запросов GET /rest/players/{id}.", before + 2,
+                value(metrics, requests, method, getPlayer, "status=\"200\""));
+        assertTrue("Нет запросов со статусом 400.", value(metrics, requests, method, getPlayer, "status=\"400\"") >= 1);
+        assertTrue("Нет гистограммы задержек.", metrics.contains("http_server_requests_seconds_bucket{"));
+        assertTrue("Нет времени вызовов репозитория.",
+                value(metrics, "game_repository_calls_seconds_count{", "method=\"getPlayer\"") >= 2);
+    }
+
+    //test2
+    @Test
+    public void statementsOfParallelSearchAreChargedToRequest() throws Exception {
+        String statements = "http_server_statements_sum{";
+        String search = "uri=\"/rest/players/search\"";
+        double before = value(scrape(), statements, search);
+
+        mockMvc.perform(get("/rest/players/search?race=ELF")).andExpect(status().isOk());
+
+        assertEquals("Запрос поиска должен выполнить страницу и фасеты в параллельном потоке.", before + 2,
+                value(scrape(), statements, search));
+    }
+
+    //test3
+    @Test
+    public void transactionsAndHibernateStatisticsAreExposed() throws Exception {
+        String committed = "game_transactions_seconds_count{";
+        double before = value(scrape(), committed, "outcome=\"committed\"", "readOnly=\"false\"");
+
+        mockMvc.perform(post("/rest/players/7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"experience\": 100}"))
+                .andExpect(status().isOk());
+
+        String metrics = scrape();
+        assertEquals("Не правильное количество транзакций.", before + 1,
+                value(metrics, committed, "outcome=\"committed\"", "readOnly=\"false\""));
+        assertTrue("Нет статистики Hibernate.", value(metrics, "hibernate_statements_prepared_total{") > 0);
+        assertTrue("Нет статистики кэша второго уровня.", metrics.contains("hibernate_cache_requests_total{"));
+        assertTrue("Нет счетчиков региона Ehcache.", metrics.contains("cache_gets_total{") && metrics.contains("cache_size{"));
+        assertTrue("Размер кэша в куче измеряется обходом графа объектов при каждом опросе.",
+                !metrics.contains("cache_local_heap_size"));
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static double value(String metrics, String name, String... labels) {
+        for (String line : metrics.split("\n")) {
+            if (!line.startsWith(name))
+                continue;
+            boolean matches = true;
+            for (String label : labels)
+                matches &= line.contains(label);
+            if (matches)
+                return Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+        }
+        return 0;
+    }
+}
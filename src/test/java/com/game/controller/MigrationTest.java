@@ -0,0 +1,71 @@
+package com.game.controller;
+
+import com.game.config.AppConfig;
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+public class MigrationTest extends AbstractTest {
+
+    //test1
+    @Test
+    public void migrationsAreApplied() {
+        Flyway flyway = context.getBean(Flyway.class);
+
+        assertEquals("Не применены все миграции.", 0, flyway.info().pending().length);
+        assertEquals("Не правильная версия схемы.", "4", flyway.info().current().getVersion().getVersion());
+    }
+
+    //test2
+    @Test
+    public void filterIndexesExist() throws Exception {
+        Set<String> indexes = new HashSet<>();
+        try (Connection connection = context.getBean(DataSource.class).getConnection();
+             ResultSet rows = connection.getMetaData().getIndexInfo(null, null, "PLAYER", false, true)) {
+            while (rows.next())
+                indexes.add(rows.getString("INDEX_NAME").toLowerCase());
+        }
+
+        for (String index : new String[]{"idx_player_race_profession_banned", "idx_player_name_id",
+                "idx_player_experience_id", "idx_player_birthday_id", "idx_player_level_id"})
+            assertTrue("Нет индекса " + index + ".", indexes.contains(index));
+    }
+
+    //test3
+    @Test
+    public void baselinedSchemaGetsImportTable() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:baseline;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            // The player table exactly as the original init.sql created it, before any migrations existed.
+            statement.execute("CREATE TABLE player (id BIGINT(20) NOT NULL AUTO_INCREMENT, name VARCHAR(12) NULL,"
+                    + " title VARCHAR(30) NULL, race VARCHAR(20) NULL, profession VARCHAR(20) NULL, birthday DATE NULL,"
+                    + " banned BIT(1) NULL, experience INT(10) NULL, level INT(3) NULL, untilNextLevel INT(10) NULL,"
+                    + " PRIMARY KEY (id))");
+        }
+
+        try {
+            new AppConfig().flyway(dataSource).migrate();
+
+            try (Connection connection = dataSource.getConnection();
+                 ResultSet tables = connection.getMetaData().getTables(null, null, "PLAYER_IMPORT", null)) {
+                assertTrue("Миграции не создают player_import в схеме, созданной старым init.sql.", tables.next());
+            }
+        } finally {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import com.game.repository.PlayerIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "game.index.enabled=true")
+public class PlayerIndexTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    @Autowired
+    private PlayerIndex playerIndex;
+
+    @Before
+    public void reloadIndex() {
+        playerIndex.reload();
+    }
+
+    //test1
+    @Test
+    public void getAllWithFiltersRaceProfessionMinExperienceMaxExperience() throws Exception {
+        List<PlayerInfoTest> actual = getList("/rest/players?race=ELF&profession=SORCERER&minExperience=50000&maxExperience=150000");
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(0, 3,
+                testsHelper.getPlayerInfosByRace(Race.ELF,
+                        testsHelper.getPlayerInfosByProfession(Profession.SORCERER,
+                                testsHelper.getPlayerInfosByMinExperience(50000,
+                                        testsHelper.getPlayerInfosByMaxExperience(150000,
+                                                testsHelper.getAllPlayers())))));
+
+        assertEquals("Индекс возвращает не правильный результат с параметрами race, profession, minExperience и maxExperience.", expected, actual);
+    }
+
+    //test2
+    @Test
+    public void getAllWithFiltersNameAfterBeforePageNumber() throws Exception {
+        List<PlayerInfoTest> actual = getList("/rest/players?name=а&after=1104530400000&before=1230760800000&pageNumber=1");
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(1, 3,
+                byName("а",
+                        testsHelper.getPlayerInfosByAfter(1104530400000L,
+                                testsHelper.getPlayerInfosByBefore(1230760800000L,
+                                        testsHelper.getAllPlayers()))));
+
+        assertEquals("Индекс возвращает не правильный результат с параметрами name, after, before и pageNumber.", expected, actual);
+    }
+
+    //test3
+    @Test
+    public void getAllOrderedByExperience() throws Exception {
+        List<PlayerInfoTest> actual = getList("/rest/players?banned=false&minLevel=10&order=EXPERIENCE&pageNumber=2&pageSize=5");
+        List<PlayerInfoTest> players = new ArrayList<>(testsHelper.getPlayerInfosByBaned(false,
+                testsHelper.getPlayerInfosByMinLevel(10, testsHelper.getAllPlayers())));
+        players.sort(Comparator.comparing((PlayerInfoTest p) -> p.experience).thenComparing(p -> p.id));
+        List<PlayerInfoTest> expected = testsHelper.getPlayerInfosByPage(2, 5, players);
+
+        assertEquals("Индекс возвращает не правильный результат при сортировке по experience.", expected, actual);
+    }
+
+    //test4
+    @Test
+    public void getCountWithFiltersRaceProfessionBanned() throws Exception {
+        int actual = getCount("/rest/players/count?race=DWARF&profession=CLERIC&banned=true");
+        int expected = testsHelper.getPlayerInfosByBaned(true,
+                testsHelper.getPlayerInfosByRace(Race.DWARF,
+                        testsHelper.getPlayerInfosByProfession(Profession.CLERIC,
+                                testsHelper.getAllPlayers()))).size();
+
+        assertEquals("Индекс возвращает не правильное количество с параметрами race, profession и banned.", expected, actual);
+    }
+
+    //test5
+    @Test
+    public void indexFollowsCreateUpdateDelete() throws Exception {
+        int before = getCount("/rest/players/count?race=DWARF");
+
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestsHelper.BANNED_TRUE_JSON))
+                .andExpect(status().isOk());
+        assertEquals("Индекс не учитывает созданного игрока.", before + 1, getCount("/rest/players/count?race=DWARF"));
+
+        mockMvc.perform(post("/rest/players/41")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"ELF\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Индекс не учитывает обновление игрока.", before, getCount("/rest/players/count?race=DWARF"));
+
+        int elves = getCount("/rest/players/count?race=ELF");
+        mockMvc.perform(delete("/rest/players/41"))
+                .andExpect(status().isOk());
+        assertEquals("Индекс не учитывает удаление игрока.", elves - 1, getCount("/rest/players/count?race=ELF"));
+    }
+
+    //test6
+    @Test
+    public void cursorWalkMatchesPageNumberWalk() throws Exception {
+        for (PlayerOrder order : PlayerOrder.values()) {
+            List<PlayerInfoTest> byPageNumber = getList("/rest/players?pageSize=100&order=" + order);
+            List<PlayerInfoTest> byCursor = new ArrayList<>();
+            String cursor = "";
+            do {
+                MockHttpServletResponse response = mockMvc.perform(get("/rest/players?pageSize=6&order=" + order
+                        + "&cursor=" + cursor))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse();
+                byCursor.addAll(mapper.readValue(response.getContentAsString(), typeReference));
+                cursor = response.getHeader(GameController.NEXT_CURSOR_HEADER);
+            } while (cursor != null);
+
+            assertEquals("Индекс возвращает не правильный результат при обходе по курсору для order=" + order,
+                    byPageNumber, byCursor);
+        }
+    }
+
+    //test7
+    @Test
+    public void searchReturnsPageCountAndFacetsFromOnePass() throws Exception {
+        String content = mockMvc.perform(get("/rest/players/search?title=ий&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = mapper.readTree(content);
+        List<PlayerInfoTest> filtered = byTitle("ий", testsHelper.getAllPlayers());
+
+        assertEquals("Индекс возвращает не правильную страницу при поиске.", testsHelper.getPlayerInfosByPage(0, 2, filtered),
+                mapper.readValue(mapper.treeAsTokens(result.get("players")), typeReference));
+        assertEquals("Индекс возвращает не правильное количество при поиске.", filtered.size(), result.get("count").asInt());
+        assertEquals("Индекс возвращает не правильный фасет race=ELF при поиске.",
+                testsHelper.getPlayerInfosByRace(Race.ELF, filtered).size(), result.get("races").get("ELF").asInt());
+    }
+
+    //test8
+    @Test
+    public void getAllWithShortAndLongNameAndTitle() throws Exception {
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+
+        assertEquals("Индекс возвращает не правильный результат с параметром name из трех и более символов.",
+                byName("лан", all), getList("/rest/players?name=лан&pageSize=100"));
+        assertEquals("Индекс возвращает не правильный результат с параметром name короче трех символов.",
+                byName("ан", all), getList("/rest/players?name=ан&pageSize=100"));
+        assertEquals("Индекс возвращает не правильный результат с параметрами name и title.",
+                byTitle("Ухо", byName("Дер", all)),
+                getList("/rest/players?name=Дер&title=Ухо&pageSize=100"));
+        assertEquals("Индекс возвращает не правильное количество при отсутствии совпадений.",
+                0, getCount("/rest/players/count?name=ъъъ"));
+    }
+
+    //test9
+    @Test
+    public void trigramsFollowUpdateAndDelete() throws Exception {
+        int lan = getCount("/rest/players/count?name=лан");
+        int rin = getCount("/rest/players/count?name=рин");
+
+        mockMvc.perform(post("/rest/players/7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Тарин\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Индекс не удаляет триграммы старого имени.", lan - 1, getCount("/rest/players/count?name=лан"));
+        assertEquals("Индекс не добавляет триграммы нового имени.", rin + 1, getCount("/rest/players/count?name=рин"));
+
+        mockMvc.perform(delete("/rest/players/7"))
+                .andExpect(status().isOk());
+        assertEquals("Индекс не учитывает удаление игрока.", rin, getCount("/rest/players/count?name=рин"));
+    }
+
+    //test10
+    @Test
+    public void versionsFollowUpdateAndBulkPatch() throws Exception {
+        String etag = mockMvc.perform(get("/rest/players/7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/rest/players/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/rest/players/7")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Новый титул\"}"))
+                .andExpect(status().isOk());
+        String updated = mockMvc.perform(get("/rest/players/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/rest/players/7").header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/rest/players/bulk-patch?title=Новый")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": true}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/7").header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isOk());
+    }
+
+    //test11
+    @Test
+    public void mixedCaseMatchesDatabaseCollation() throws Exception {
+        String[] names = {"АРАГОРН", "арагорн", "Арагорн", "аРагорнище"};
+        for (int i = 0; i < names.length; i++)
+            mockMvc.perform(post("/rest/players/" + (i + 1))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"" + names[i] + "\", \"title\": \"Страж " + names[i] + "\"}"))
+                    .andExpect(status().isOk());
+
+        for (String part : new String[]{"рагор", "РАГОР", "Арагорн", "ОРН"}) {
+            assertEquals("Индекс и база данных по-разному фильтруют name=" + part + ".",
+                    databaseIds("select p.id from Player p where p.name like :part order by p.name, p.id", part),
+                    ids(getList("/rest/players?order=NAME&pageSize=100&name=" + part)));
+            assertEquals("Индекс и база данных по-разному фильтруют title=" + part + ".",
+                    databaseIds("select p.id from Player p where p.title like :part order by p.id", part),
+                    ids(getList("/rest/players?pageSize=100&title=" + part)));
+        }
+        assertEquals("Индекс и база данных по-разному сортируют по name.",
+                databaseIds("select p.id from Player p where p.name like :part order by p.name, p.id", ""),
+                ids(getList("/rest/players?order=NAME&pageSize=100")));
+    }
+
+    private List<Long> databaseIds(String jpql, String part) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            return entityManager.createQuery(jpql, Long.class)
+                    .setParameter("part", "%" + part + "%")
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // The database collation is case-insensitive, unlike TestsHelper's String.contains filters.
+    private static List<PlayerInfoTest> byName(String part, List<PlayerInfoTest> players) {
+        List<PlayerInfoTest> result = new ArrayList<>();
+        for (PlayerInfoTest player : players)
+            if (player.name.toLowerCase().contains(part.toLowerCase()))
+                result.add(player);
+        return result;
+    }
+
+    private static List<PlayerInfoTest> byTitle(String part, List<PlayerInfoTest> players) {
+        List<PlayerInfoTest> result = new ArrayList<>();
+        for (PlayerInfoTest player : players)
+            if (player.title.toLowerCase().contains(part.toLowerCase()))
+                result.add(player);
+        return result;
+    }
+
+    private static List<Long> ids(List<PlayerInfoTest> players) {
+        List<Long> ids = new ArrayList<>();
+        for (PlayerInfoTest player : players)
+            ids.add(player.id);
+        return ids;
+    }
+
+    private List<PlayerInfoTest> getList(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, typeReference);
+    }
+
+    private int getCount(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+}
@@ -0,0 +1,90 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Player;
+import com.game.entity.Race;
+import com.game.repository.GameRepository;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PlayerJsonTest extends AbstractTest {
+
+    private final ObjectMapper reflective = reflectiveMapper();
+
+    //test1
+    @Test
+    public void pageIsByteForByteCompatible() throws Exception {
+        List<Player> players = context.getBean(GameRepository.class).getPlayers(null, null, null, null, null, null,
+                null, null, null, null, null, PlayerOrder.ID, 0, 100);
+
+        String content = mockMvc.perform(get("/rest/players?pageSize=100"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Ответ отличается от сериализации через рефлексию.", reflective.writeValueAsString(players), content);
+    }
+
+    //test2
+    @Test
+    public void nullsAndEscapesAreCompatible() throws Exception {
+        Player player = new Player();
+        player.setName("\"Кавычки\" и \\ \n\t\u0001");
+        player.setRace(Race.TROLL);
+        player.setBanned(null);
+        Player full = new Player(player);
+        full.setId(Long.MAX_VALUE);
+        full.setBirthday(new java.sql.Date(988059600000L));
+        full.setExperience(0);
+
+        ObjectMapper mapper = context.getBean(ObjectMapper.class);
+        for (Player expected : new Player[]{player, full, new Player()})
+            assertEquals("Сериализация отличается от сериализации через рефлексию.",
+                    reflective.writeValueAsString(expected), mapper.writeValueAsString(expected));
+    }
+
+    //test3
+    @Test
+    public void bodiesAreReadLikeReflectiveMapper() throws Exception {
+        String[] bodies = {
+                TestsHelper.NORMAL_JSON,
+                "{\"id\": 7, \"experience\": \"100\", \"level\": 3.0, \"banned\": null, \"unknown\": {\"a\": [1]}}",
+                "{\"birthday\": \"2001-04-24\", \"banned\": \"true\", \"title\": 15}",
+                "{\"name\": null, \"race\": null, \"birthday\": null}",
+                "{}"
+        };
+        ObjectMapper mapper = context.getBean(ObjectMapper.class);
+        for (String body : bodies)
+            assertEquals("Разбор тела отличается от разбора через рефлексию: " + body,
+                    reflective.writeValueAsString(reflective.readValue(body, Player.class)),
+                    reflective.writeValueAsString(mapper.readValue(body, Player.class)));
+    }
+
+    //test4
+    @Test
+    public void unknownEnumIsMappingError() throws Exception {
+        try {
+            context.getBean(ObjectMapper.class).readValue("{\"race\": \"ROBOT\"}", Player.class);
+            fail("Неизвестная раса должна приводить к ошибке разбора.");
+        } catch (JsonMappingException expected) {
+            // same exception type the bean deserializer throws
+        }
+    }
+
+    private static ObjectMapper reflectiveMapper() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        return mapper;
+    }
+}
@@ -0,0 +1,95 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import com.game.service.PlayerQueryCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "game.cache.enabled=true")
+public class QueryCacheTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private PlayerQueryCache queryCache;
+
+    @Before
+    public void clearCache() {
+        queryCache.clear();
+    }
+
+    //test1
+    @Test
+    public void repeatedQueryIsServedFromCache() throws Exception {
+        long hits = stats().get("hits").asLong();
+        long misses = stats().get("misses").asLong();
+
+        getCount("/rest/players/count?race=ELF");
+        getCount("/rest/players/count?race=ELF");
+        mockMvc.perform(get("/rest/players?race=ELF")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?race=ELF")).andExpect(status().isOk());
+
+        assertEquals("Повторный запрос должен обслуживаться из кэша.", hits + 2, stats().get("hits").asLong());
+        assertEquals("Первый запрос должен быть промахом кэша.", misses + 2, stats().get("misses").asLong());
+    }
+
+    //test2
+    @Test
+    public void updateInvalidatesOnlyAffectedEntries() throws Exception {
+        int elves = testsHelper.getPlayerInfosByRace(Race.ELF, testsHelper.getAllPlayers()).size();
+        int trolls = testsHelper.getPlayerInfosByRace(Race.TROLL, testsHelper.getAllPlayers()).size();
+        int hobbits = testsHelper.getPlayerInfosByRace(Race.HOBBIT, testsHelper.getAllPlayers()).size();
+        assertEquals("Не правильное количество ELF.", elves, getCount("/rest/players/count?race=ELF"));
+        assertEquals("Не правильное количество TROLL.", trolls, getCount("/rest/players/count?race=TROLL"));
+        assertEquals("Не правильное количество HOBBIT.", hobbits, getCount("/rest/players/count?race=HOBBIT"));
+
+        mockMvc.perform(post("/rest/players/6")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"TROLL\"}"))
+                .andExpect(status().isOk());
+
+        long hits = stats().get("hits").asLong();
+        assertEquals("Кэш не инвалидируется после изменения расы.", elves - 1, getCount("/rest/players/count?race=ELF"));
+        assertEquals("Кэш не инвалидируется после изменения расы.", trolls + 1, getCount("/rest/players/count?race=TROLL"));
+        assertEquals("Не правильное количество HOBBIT.", hobbits, getCount("/rest/players/count?race=HOBBIT"));
+        assertEquals("Не затронутые изменением записи не должны удаляться из кэша.", hits + 1, stats().get("hits").asLong());
+    }
+
+    //test3
+    @Test
+    public void deleteInvalidatesMatchingEntries() throws Exception {
+        int all = getCount("/rest/players/count");
+
+        mockMvc.perform(delete("/rest/players/1"))
+                .andExpect(status().isOk());
+
+        assertEquals("Кэш не инвалидируется после удаления игрока.", all - 1, getCount("/rest/players/count"));
+    }
+
+    private int getCount(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(content);
+    }
+
+    private JsonNode stats() throws Exception {
+        String content = mockMvc.perform(get("/rest/admin/query-cache"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,70 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class QueryShapesTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void sameShapeWithDifferentValuesCompilesOnce() throws Exception {
+        mockMvc.perform(delete("/rest/admin/query-shapes")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players?name=ан&minLevel=10&order=LEVEL")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?name=ин&minLevel=20&order=LEVEL")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?name=эл&minLevel=30&order=LEVEL")).andExpect(status().isOk());
+
+        JsonNode stats = stats();
+        assertEquals("Одна форма запроса должна компилироваться один раз.", 1, stats.get("shapes").asInt());
+        assertEquals("Не правильное количество попаданий.", 2, stats.get("hits").asInt());
+        assertEquals("Не правильное количество промахов.", 1, stats.get("misses").asInt());
+    }
+
+    //test2
+    @Test
+    public void orderAndKindAreSeparateShapes() throws Exception {
+        mockMvc.perform(delete("/rest/admin/query-shapes")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players?race=ELF&order=NAME")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?race=ELF&order=EXPERIENCE")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count?race=ELF")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players/count?race=ORC")).andExpect(status().isOk());
+
+        JsonNode stats = stats();
+        assertEquals("Не правильное количество форм запросов.", 3, stats.get("shapes").asInt());
+        assertEquals("Не правильное количество попаданий.", 1, stats.get("hits").asInt());
+    }
+
+    //test3
+    @Test
+    public void shapesWithoutIndexSupportAreReported() throws Exception {
+        mockMvc.perform(delete("/rest/admin/query-shapes")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players?title=ый")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?title=ая")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?race=ELF&title=ый")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?order=EXPERIENCE")).andExpect(status().isOk());
+
+        JsonNode unindexed = stats().get("unindexed");
+        assertEquals("Не правильное количество форм без индекса.", 1, unindexed.size());
+        assertEquals("Не правильный запрос без индекса.", "select p from Player p where p.title like :title order by p.id",
+                unindexed.get(0).get("query").asText());
+        assertEquals("Не правильное количество выполнений формы без индекса.", 2,
+                unindexed.get(0).get("executions").asInt());
+    }
+
+    private JsonNode stats() throws Exception {
+        String content = mockMvc.perform(get("/rest/admin/query-shapes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+}
@@ -0,0 +1,84 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Profession;
+import com.game.entity.Race;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SearchTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final TypeReference<List<PlayerInfoTest>> typeReference = new TypeReference<List<PlayerInfoTest>>() {
+    };
+
+    //test1
+    @Test
+    public void searchWithoutFiltersReturnsPageCountAndFacets() throws Exception {
+        JsonNode result = search("/rest/players/search");
+        List<PlayerInfoTest> all = testsHelper.getAllPlayers();
+
+        assertEquals("Возвращается не правильная страница при запросе GET /rest/players/search.",
+                testsHelper.getPlayerInfosByPage(0, 3, all), players(result));
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/players/search.",
+                all.size(), result.get("count").asInt());
+        for (Race race : Race.values())
+            assertEquals("Не правильный фасет race=" + race, testsHelper.getPlayerInfosByRace(race, all).size(),
+                    result.get("races").get(race.name()).asInt());
+        for (Profession profession : Profession.values())
+            assertEquals("Не правильный фасет profession=" + profession,
+                    testsHelper.getPlayerInfosByProfession(profession, all).size(),
+                    result.get("professions").get(profession.name()).asInt());
+        assertEquals("Не правильный фасет banned=true", testsHelper.getPlayerInfosByBaned(true, all).size(),
+                result.get("banned").get("true").asInt());
+    }
+
+    //test2
+    @Test
+    public void searchWithFiltersNamePageNumber() throws Exception {
+        JsonNode result = search("/rest/players/search?name=ра&pageNumber=1");
+        List<PlayerInfoTest> filtered = testsHelper.getPlayerInfosByName("ра", testsHelper.getAllPlayers());
+
+        assertEquals("Возвращается не правильная страница при запросе GET /rest/players/search с параметрами name и pageNumber.",
+                testsHelper.getPlayerInfosByPage(1, 3, filtered), players(result));
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/players/search с параметром name.",
+                filtered.size(), result.get("count").asInt());
+        assertEquals("Не правильный фасет banned=false", testsHelper.getPlayerInfosByBaned(false, filtered).size(),
+                result.get("banned").get("false").asInt());
+    }
+
+    //test3
+    @Test
+    public void searchWithFiltersRaceProfessionBanned() throws Exception {
+        JsonNode result = search("/rest/players/search?race=DWARF&profession=CLERIC&banned=true");
+        int expected = testsHelper.getPlayerInfosByBaned(true,
+                testsHelper.getPlayerInfosByRace(Race.DWARF,
+                        testsHelper.getPlayerInfosByProfession(Profession.CLERIC,
+                                testsHelper.getAllPlayers()))).size();
+
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/players/search с параметрами race, profession и banned.",
+                expected, result.get("count").asInt());
+        assertEquals("Не правильный фасет race=ELF", 0, result.get("races").get("ELF").asInt());
+    }
+
+    private JsonNode search(String url) throws Exception {
+        String content = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+
+    private List<PlayerInfoTest> players(JsonNode result) throws Exception {
+        return mapper.readValue(mapper.treeAsTokens(result.get("players")), typeReference);
+    }
+}
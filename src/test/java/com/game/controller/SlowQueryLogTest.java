@@ -0,0 +1,58 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertFalse;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "game.slow-query.threshold-millis=0")
+public class SlowQueryLogTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void queriesWithSameShapeShareFingerprint() throws Exception {
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players?name=ра&race=ELF&order=EXPERIENCE")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?name=эл&race=ORC&order=EXPERIENCE&pageNumber=1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/players?race=ORC")).andExpect(status().isOk());
+
+        String content = stats();
+        JsonNode top = mapper.readTree(content).get("mostFrequent").get(0);
+        assertEquals("Не правильный отпечаток запроса.",
+                "list where name like ? and race = ? order by experience", top.get("fingerprint").asText());
+        assertEquals("Не правильное количество запросов с одним отпечатком.", 2, top.get("count").asInt());
+        assertEquals("При нулевом пороге все запросы медленные.", 2, top.get("slow").asInt());
+        assertTrue("Не указан p99.", top.get("p99Millis").asDouble() >= top.get("p50Millis").asDouble());
+        assertFalse("Отпечаток не должен содержать значения фильтров.", content.contains("ра\"") || content.contains("ELF"));
+    }
+
+    //test2
+    @Test
+    public void countsAreFingerprintedSeparately() throws Exception {
+        mockMvc.perform(delete("/rest/admin/slow-queries")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/rest/players/count?banned=true&minLevel=3")).andExpect(status().isOk());
+
+        JsonNode stats = mapper.readTree(stats());
+        assertEquals("Не правильное количество отпечатков.", 1, stats.get("fingerprints").asInt());
+        assertEquals("Не правильный отпечаток запроса количества.", "count where banned = ? and level >= ?",
+                stats.get("slowest").get(0).get("fingerprint").asText());
+    }
+
+    private String stats() throws Exception {
+        return mockMvc.perform(get("/rest/admin/slow-queries"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.game.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SmileTest extends AbstractTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    //test1
+    @Test
+    public void pageRoundTripsAndIsSmaller() throws Exception {
+        byte[] jsonBody = read("/rest/players?pageSize=100", MediaType.APPLICATION_JSON_VALUE);
+        byte[] smileBody = read("/rest/players?pageSize=100", GameController.SMILE_VALUE);
+
+        assertEquals("Smile и JSON должны содержать одинаковые данные.", json.readTree(jsonBody), smile.readTree(smileBody));
+        assertTrue("Smile должен быть компактнее JSON: " + smileBody.length + " против " + jsonBody.length + ".",
+                smileBody.length < jsonBody.length * 0.75);
+    }
+
+    //test2
+    @Test
+    public void singlePlayerAndSearchRoundTrip() throws Exception {
+        for (String url : new String[]{"/rest/players/5", "/rest/players/search?race=ELF", "/rest/players/count"})
+            assertEquals("Smile и JSON должны содержать одинаковые данные: " + url,
+                    json.readTree(read(url, MediaType.APPLICATION_JSON_VALUE)),
+                    smile.readTree(read(url, GameController.SMILE_VALUE)));
+    }
+
+    //test3
+    @Test
+    public void createAcceptsSmileBody() throws Exception {
+        byte[] body = smile.writeValueAsBytes(json.readTree(TestsHelper.NORMAL_JSON));
+
+        byte[] content = mockMvc.perform(post("/rest/players")
+                .contentType(GameController.SMILE_VALUE)
+                .accept(GameController.SMILE_VALUE)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GameController.SMILE_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode created = smile.readTree(content);
+        assertEquals("Не правильное имя созданного игрока.", "Амарылис", created.get("name").asText());
+        assertEquals("Не правильный уровень созданного игрока.", 35, created.get("level").asInt());
+    }
+
+    private byte[] read(String url, String mediaType) throws Exception {
+        return mockMvc.perform(get(url).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
@@ -0,0 +1,127 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import com.game.controller.utils.TestsHelper;
+import com.game.entity.Race;
+import com.game.repository.PlayerStats;
+import org.hibernate.SessionFactory;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class StatsTest extends AbstractTest {
+
+    private final TestsHelper testsHelper = new TestsHelper();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void statsMatchStoredPlayers() throws Exception {
+        List<PlayerInfoTest> players = testsHelper.getAllPlayers();
+        JsonNode stats = stats();
+
+        assertEquals("Не правильное общее количество игроков.", players.size(), stats.get("total").asInt());
+        assertEquals("Не правильное количество эльфов.", testsHelper.getPlayerInfosByRace(Race.ELF, players).size(),
+                count(stats, "ELF", null, null));
+        long experience = 0;
+        for (PlayerInfoTest player : players)
+            experience += player.experience;
+        long sum = 0;
+        for (JsonNode cell : stats.get("cells"))
+            sum += cell.get("experience").asLong();
+        assertEquals("Не правильная сумма опыта.", experience, sum);
+        long histogram = 0;
+        for (JsonNode level : stats.get("levels"))
+            histogram += level.asLong();
+        assertEquals("Не правильная гистограмма уровней.", (long) players.size(), histogram);
+        assertEquals("Не правильное количество игроков 33 уровня.",
+                testsHelper.getPlayerInfosByMinLevel(33, testsHelper.getPlayerInfosByMaxLevel(33, players)).size(),
+                stats.get("levels").get("33").asInt());
+    }
+
+    //test2
+    @Test
+    public void statsAreServedFromMemory() throws Exception {
+        stats();
+        long statements = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+                .getStatistics().getPrepareStatementCount();
+
+        stats();
+
+        assertEquals("Статистика должна отдаваться без обращения к базе данных.", statements,
+                context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+                        .getStatistics().getPrepareStatementCount());
+    }
+
+    //test3
+    @Test
+    public void statsFollowCreateUpdateAndDelete() throws Exception {
+        JsonNode before = stats();
+        int humanClerics = count(before, "HUMAN", "CLERIC", false);
+
+        mockMvc.perform(post("/rest/players/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/rest/players/3")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"race\": \"HUMAN\", \"profession\": \"CLERIC\", \"banned\": false}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/rest/players/5")).andExpect(status().isOk());
+
+        JsonNode after = stats();
+        assertEquals("Не правильное общее количество после изменений.", before.get("total").asInt(),
+                after.get("total").asInt());
+        assertEquals("Не правильное количество HUMAN CLERIC.", humanClerics + 2, count(after, "HUMAN", "CLERIC", false));
+        assertEquals("Не правильное количество DWARF CLERIC banned.", count(before, "DWARF", "CLERIC", true) - 1,
+                count(after, "DWARF", "CLERIC", true));
+        assertEquals("Не правильное количество HUMAN SORCERER banned.", count(before, "HUMAN", "SORCERER", true) - 1,
+                count(after, "HUMAN", "SORCERER", true));
+
+        context.getBean(PlayerStats.class).reconcile();
+        assertEquals("Счетчики разошлись с базой данных.", 0, stats().get("drift").asInt());
+    }
+
+    //test4
+    @Test
+    public void statsReloadAfterBulkPatch() throws Exception {
+        stats();
+
+        mockMvc.perform(post("/rest/players/bulk-patch?race=ELF")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"banned\": true}"))
+                .andExpect(status().isOk());
+
+        JsonNode stats = stats();
+        assertEquals("После массового бана не должно остаться незабаненных эльфов.", 0,
+                count(stats, "ELF", null, false));
+    }
+
+    private JsonNode stats() throws Exception {
+        String content = mockMvc.perform(get("/rest/players/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content);
+    }
+
+    private static int count(JsonNode stats, String race, String profession, Boolean banned) {
+        int count = 0;
+        for (JsonNode cell : stats.get("cells")) {
+            if ((race == null || race.equals(cell.get("race").asText()))
+                    && (profession == null || profession.equals(cell.get("profession").asText()))
+                    && (banned == null || banned == cell.get("banned").asBoolean()))
+                count += cell.get("count").asInt();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.game.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.controller.utils.PlayerInfoTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class UpdateStatementCountTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void updateOfCachedPlayerIssuesOneStatement() throws Exception {
+        mockMvc.perform(get("/rest/players/5")).andExpect(status().isOk());
+
+        long statements = statistics().getPrepareStatementCount();
+        PlayerInfoTest updated = update(5, "{\"title\": \"Бабуля\", \"experience\": 2500}");
+
+        assertEquals("Обновление закэшированного игрока должно выполняться одним запросом.",
+                statements + 1, statistics().getPrepareStatementCount());
+        assertEquals("Не правильный title после обновления.", "Бабуля", updated.title);
+        assertEquals("Не правильный level после обновления.", 6, updated.level.intValue());
+        assertEquals("Не правильный untilNextLevel после обновления.", 300, updated.untilNextLevel.intValue());
+    }
+
+    //test2
+    @Test
+    public void updateOfUncachedPlayerIssuesReadAndUpdate() throws Exception {
+        long statements = statistics().getPrepareStatementCount();
+        update(5, "{\"banned\": false}");
+
+        assertEquals("Обновление игрока не из кэша должно выполняться чтением и одним обновлением.",
+                statements + 2, statistics().getPrepareStatementCount());
+    }
+
+    //test3
+    @Test
+    public void updateWithoutChangesIssuesNoWrite() throws Exception {
+        mockMvc.perform(get("/rest/players/6")).andExpect(status().isOk());
+
+        long statements = statistics().getPrepareStatementCount();
+        update(6, "{}");
+
+        assertEquals("Обновление без изменений не должно обращаться к базе данных.",
+                statements, statistics().getPrepareStatementCount());
+    }
+
+    private PlayerInfoTest update(long id, String json) throws Exception {
+        String content = mockMvc.perform(post("/rest/players/" + id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(content, PlayerInfoTest.class);
+    }
+
+    private Statistics statistics() {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,253 @@
+package com.game.controller.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for MockMvc. Requests are scheduled at a fixed arrival rate and each latency is
+ * measured from the moment the request was due rather than from when a worker got round to sending it, so a
+ * stalled server is charged for the requests that queued up behind the stall (coordinated omission correction).
+ */
+public class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public interface Operation {
+        MvcResult perform(MockMvc mockMvc, SplittableRandom random) throws Exception;
+    }
+
+    private final MockMvc mockMvc;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private int totalWeight;
+    private int ratePerSecond = 100;
+    private int threads = 8;
+    private long seed = 42;
+
+    public LoadGenerator(MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    public LoadGenerator endpoint(String name, int weight, Operation operation) {
+        if (weight < 0)
+            throw new IllegalArgumentException("Negative weight for " + name);
+        endpoints.put(name, new Endpoint(name, weight, operation));
+        totalWeight = endpoints.values().stream().mapToInt(e -> e.weight).sum();
+        return this;
+    }
+
+    /**
+     * Overrides endpoint weights from a {@code name:weight,...} spec; endpoints not mentioned keep their weight.
+     */
+    public LoadGenerator mix(String spec) {
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            Endpoint endpoint = endpoints.get(pair[0]);
+            if (endpoint == null || pair.length != 2)
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            endpoint(endpoint.name, Integer.parseInt(pair[1]), endpoint.operation);
+        }
+        return this;
+    }
+
+    public LoadGenerator rate(int ratePerSecond) {
+        if (ratePerSecond <= 0)
+            throw new IllegalArgumentException("Rate must be positive");
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    public LoadGenerator threads(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Threads must be positive");
+        this.threads = threads;
+        return this;
+    }
+
+    public LoadGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Runs the schedule for {@code warmupSeconds + seconds} and reports only requests due after the warm-up.
+     */
+    public Report run(int warmupSeconds, int seconds) throws InterruptedException {
+        if (totalWeight == 0)
+            throw new IllegalStateException("No endpoint has a positive weight");
+        endpoints.values().forEach(Endpoint::reset);
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong sequence = new AtomicLong();
+        List<Endpoint> weighted = new ArrayList<>(endpoints.values());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed + t);
+            workers.add(executor.submit(() -> {
+                while (true) {
+                    long due = start + sequence.getAndIncrement() * interval;
+                    if (due >= end)
+                        return null;
+                    long now;
+                    while ((now = System.nanoTime()) < due)
+                        LockSupport.parkNanos(due - now);
+                    Endpoint endpoint = pick(weighted, random);
+                    boolean failed;
+                    try {
+                        MvcResult result = endpoint.operation.perform(mockMvc, random);
+                        failed = result.getResponse().getStatus() >= 500;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    long done = System.nanoTime();
+                    if (due >= measureFrom)
+                        endpoint.record(done - due, done - now, failed);
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> worker : workers)
+                worker.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Report report = new Report(ratePerSecond, threads, seconds);
+        for (Endpoint endpoint : endpoints.values())
+            if (endpoint.weight > 0)
+                report.add(endpoint);
+        return report;
+    }
+
+    private Endpoint pick(List<Endpoint> weighted, SplittableRandom random) {
+        int x = random.nextInt(totalWeight);
+        for (Endpoint endpoint : weighted) {
+            x -= endpoint.weight;
+            if (x < 0)
+                return endpoint;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static final class Endpoint {
+        final String name;
+        final int weight;
+        final Operation operation;
+        final Recorder corrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        final Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        final AtomicLong errors = new AtomicLong();
+
+        Endpoint(String name, int weight, Operation operation) {
+            this.name = name;
+            this.weight = weight;
+            this.operation = operation;
+        }
+
+        void reset() {
+            corrected.reset();
+            uncorrected.reset();
+            errors.set(0);
+        }
+
+        void record(long correctedNanos, long serviceNanos, boolean failed) {
+            corrected.recordValue(Math.min(correctedNanos, HIGHEST_TRACKABLE_NANOS));
+            uncorrected.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+            if (failed)
+                errors.incrementAndGet();
+        }
+    }
+
+    public static final class Report {
+        private final int ratePerSecond;
+        private final int threads;
+        private final int seconds;
+        private final Map<String, Histogram> corrected = new LinkedHashMap<>();
+        private final Map<String, Histogram> uncorrected = new LinkedHashMap<>();
+        private final Map<String, Long> errors = new LinkedHashMap<>();
+
+        Report(int ratePerSecond, int threads, int seconds) {
+            this.ratePerSecond = ratePerSecond;
+            this.threads = threads;
+            this.seconds = seconds;
+        }
+
+        void add(Endpoint endpoint) {
+            corrected.put(endpoint.name, endpoint.corrected.getIntervalHistogram());
+            uncorrected.put(endpoint.name, endpoint.uncorrected.getIntervalHistogram());
+            errors.put(endpoint.name, endpoint.errors.get());
+        }
+
+        public Histogram getHistogram(String endpoint) {
+            return corrected.get(endpoint);
+        }
+
+        public long getErrors(String endpoint) {
+            return errors.get(endpoint);
+        }
+
+        public double getThroughput(String endpoint) {
+            return (double) corrected.get(endpoint).getTotalCount() / seconds;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(Locale.ROOT, "Target %d req/s on %d threads for %d s, latency in ms (service time p99 in brackets)%n",
+                    ratePerSecond, threads, seconds);
+            out.printf(Locale.ROOT, "%-10s %9s %9s %7s %9s %9s %9s %9s %9s %9s %11s%n", "endpoint", "requests",
+                    "req/s", "errors", "p50", "p90", "p99", "p99.9", "p99.99", "max", "[p99]");
+            for (Map.Entry<String, Histogram> entry : corrected.entrySet()) {
+                Histogram histogram = entry.getValue();
+                out.printf(Locale.ROOT, "%-10s %9d %9.1f %7d", entry.getKey(), histogram.getTotalCount(),
+                        getThroughput(entry.getKey()), errors.get(entry.getKey()));
+                for (double percentile : PERCENTILES)
+                    out.printf(Locale.ROOT, " %9.3f", millis(histogram.getValueAtPercentile(percentile)));
+                out.printf(Locale.ROOT, " %9.3f %11s%n", millis(histogram.getMaxValue()),
+                        String.format(Locale.ROOT, "[%.3f]",
+                                millis(uncorrected.get(entry.getKey()).getValueAtPercentile(99))));
+            }
+        }
+
+        /**
+         * Writes one {@code .hgrm} percentile distribution per endpoint, the format HdrHistogram's plotter reads,
+         * so runs of different releases can be overlaid.
+         */
+        public void write(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, Histogram> entry : corrected.entrySet())
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")),
+                        false, "UTF-8")) {
+                    entry.getValue().outputPercentileDistribution(out, 1_000_000.0);
+                }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
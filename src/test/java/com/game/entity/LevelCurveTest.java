@@ -0,0 +1,37 @@
+package com.game.entity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevelCurveTest {
+
+    @Test
+    public void quadraticCurveMatchesClosedForm() {
+        LevelCurve curve = LevelCurve.quadratic(50, Player.MAX_EXPERIENCE);
+        for (int experience = 0; experience <= Player.MAX_EXPERIENCE; experience++) {
+            int level = (int) ((Math.sqrt(2500 + 200 * experience) - 50) / 100);
+            assertEquals("level at " + experience, level, curve.getLevel(experience));
+            assertEquals("untilNextLevel at " + experience, 50 * (level + 1) * (level + 2) - experience,
+                    curve.getUntilNextLevel(experience));
+        }
+        assertEquals(446, curve.getMaxLevel() - 1);
+    }
+
+    @Test
+    public void tableCurveResolvesThresholdsInclusively() {
+        LevelCurve curve = LevelCurve.of(0, 100, 300, 1000);
+
+        assertEquals(0, curve.getLevel(99));
+        assertEquals(1, curve.getUntilNextLevel(99));
+        assertEquals(1, curve.getLevel(100));
+        assertEquals(2, curve.getLevel(999));
+        assertEquals(3, curve.getLevel(1000));
+        assertEquals(0, curve.getUntilNextLevel(5000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tableCurveMustIncrease() {
+        LevelCurve.of(0, 100, 100);
+    }
+}
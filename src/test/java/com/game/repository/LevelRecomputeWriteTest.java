@@ -0,0 +1,84 @@
+package com.game.repository;
+
+import com.game.entity.LevelCurve;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LevelRecomputeWriteTest {
+    private static final String URL = "jdbc:h2:mem:levels;DB_CLOSE_DELAY=-1";
+
+    private final LevelCurve curve = LevelCurve.of(0, 1000, 10000, 100000);
+    private final GameRepositoryImpl repository = new GameRepositoryImpl();
+
+    private Connection job;
+    private Connection live;
+
+    @Before
+    public void setUp() throws SQLException {
+        repository.setLevelCurve(curve);
+        job = DriverManager.getConnection(URL, "sa", "");
+        live = DriverManager.getConnection(URL, "sa", "");
+        try (Statement statement = live.createStatement()) {
+            statement.execute("CREATE TABLE player (id BIGINT PRIMARY KEY, experience INT, level INT,"
+                    + " untilNextLevel INT, version BIGINT NOT NULL DEFAULT 0)");
+            statement.execute("INSERT INTO player (id, experience, level, untilNextLevel) VALUES"
+                    + " (1, 500, 0, 0), (2, 5000, 0, 0), (3, 50000, 0, 0)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = live.createStatement()) {
+            statement.execute("DROP TABLE player");
+        }
+        job.close();
+        live.close();
+    }
+
+    @Test
+    public void rowChangedBetweenReadAndWriteIsSkipped() throws SQLException {
+        List<long[]> stale = repository.readStaleLevels(job, 1, 4);
+        assertEquals(3, stale.size());
+
+        // A live update commits its own level for player 2 after the job has read the old experience.
+        try (Statement statement = live.createStatement()) {
+            statement.executeUpdate("UPDATE player SET experience = 200000, level = " + curve.getLevel(200000)
+                    + ", untilNextLevel = " + curve.getUntilNextLevel(200000) + ", version = version + 1 WHERE id = 2");
+        }
+
+        List<Long> changed = GameRepositoryImpl.writeLevels(job, stale);
+
+        assertEquals(Arrays.asList(1L, 3L), changed);
+        assertRow(1, curve.getLevel(500), curve.getUntilNextLevel(500), 1);
+        assertRow(2, curve.getLevel(200000), curve.getUntilNextLevel(200000), 1);
+        assertRow(3, curve.getLevel(50000), curve.getUntilNextLevel(50000), 1);
+    }
+
+    @Test
+    public void currentRowsAreNotRead() throws SQLException {
+        assertEquals(3, GameRepositoryImpl.writeLevels(job, repository.readStaleLevels(job, 1, 4)).size());
+
+        assertEquals(0, repository.readStaleLevels(job, 1, 4).size());
+    }
+
+    private void assertRow(long id, int level, int untilNextLevel, long version) throws SQLException {
+        try (Statement statement = live.createStatement();
+             ResultSet row = statement.executeQuery("SELECT level, untilNextLevel, version FROM player WHERE id = " + id)) {
+            row.next();
+            assertEquals(level, row.getInt(1));
+            assertEquals(untilNextLevel, row.getInt(2));
+            assertEquals(version, row.getLong(3));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.repository;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RankTreeTest {
+
+    @Test
+    public void matchesSortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        List<long[]> expected = new ArrayList<>();
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(key -> -key[1]).thenComparingLong(key -> key[0]);
+        for (long id = 1; id <= 2000; id++) {
+            int experience = random.nextInt(500);
+            tree.insert(id, experience);
+            expected.add(new long[]{id, experience});
+            if (random.nextInt(4) == 0) {
+                long[] removed = expected.remove(random.nextInt(expected.size()));
+                tree.remove(removed[0], (int) removed[1]);
+            }
+        }
+        expected.sort(order);
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            long[] key = expected.get(i);
+            assertEquals(key[0], tree.select(i));
+            assertEquals(i + 1, tree.rank(key[0], (int) key[1]));
+        }
+        assertEquals(0, tree.rank(5000, 1));
+    }
+}
@@ -0,0 +1,94 @@
+package com.game.tools;
+
+import com.game.controller.PlayerValidator;
+import com.game.entity.Player;
+import com.game.entity.Race;
+import com.game.service.PlayerImportReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PlayerGeneratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sameSeedGivesSamePlayers() {
+        PlayerGenerator first = new PlayerGenerator(7).experience("skewed:3");
+        PlayerGenerator second = new PlayerGenerator(7).experience("skewed:3");
+        for (int i = 0; i < 1000; i++)
+            assertEquals(describe(first.next()), describe(second.next()));
+        assertNotEquals(describe(new PlayerGenerator(8).next()), describe(new PlayerGenerator(7).next()));
+    }
+
+    @Test
+    public void weightsAndRangesAreRespected() {
+        PlayerGenerator generator = new PlayerGenerator(1)
+                .races("ELF:1,ORC:0,HUMAN:3")
+                .experience("normal:50000:1000")
+                .bannedRatio(0);
+        int elves = 0;
+        for (int i = 0; i < 10_000; i++) {
+            Player player = generator.next();
+            assertTrue(player.getRace() == Race.ELF || player.getRace() == Race.HUMAN);
+            assertTrue(player.getExperience() > 40_000 && player.getExperience() < 60_000);
+            assertEquals(false, player.getBanned());
+            assertTrue(PlayerValidator.isValidForCreate(player));
+            if (player.getRace() == Race.ELF)
+                elves++;
+        }
+        assertTrue("elves: " + elves, elves > 2200 && elves < 2800);
+    }
+
+    @Test
+    public void csvIsImportable() throws Exception {
+        File file = folder.newFile("players.csv");
+        PlayerDatasetCli.writeCsv(new PlayerGenerator(3), 500, file.getPath());
+
+        PlayerGenerator expected = new PlayerGenerator(3);
+        try (InputStream in = Files.newInputStream(file.toPath());
+             PlayerImportReader reader = PlayerImportReader.csv(in)) {
+            for (int i = 0; i < 500; i++) {
+                Player player = reader.next();
+                assertTrue(PlayerValidator.isValidForCreate(player));
+                Player generated = expected.next();
+                assertEquals(generated.getName(), player.getName());
+                assertEquals(generated.getExperience(), player.getExperience());
+                assertEquals(generated.getBirthday(), player.getBirthday());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void loadsIntoMigratedDatabase() throws Exception {
+        String url = "jdbc:h2:mem:dataset;DB_CLOSE_DELAY=-1";
+        PlayerDatasetCli.load(new PlayerGenerator(5), 2500, url, "sa", "", 1000, true);
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             ResultSet rows = connection.createStatement().executeQuery("SELECT count(*), max(id) FROM player")) {
+            rows.next();
+            assertEquals(2500, rows.getInt(1));
+            assertEquals(2500, rows.getInt(2));
+        }
+    }
+
+    private static String describe(Player player) {
+        return player.getName() + '|' + player.getTitle() + '|' + player.getRace() + '|' + player.getProfession()
+                + '|' + player.getBirthday().getTime() + '|' + player.getBanned() + '|' + player.getExperience() + '|'
+                + player.getLevel() + '|' + player.getUntilNextLevel();
+    }
+}